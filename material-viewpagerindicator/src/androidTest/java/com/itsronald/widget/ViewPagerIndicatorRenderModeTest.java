@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2016 Ronald Martin <hello@itsronald.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Last modified 10/12/16 11:22 PM.
+ */
+
+package com.itsronald.widget;
+
+import android.content.Context;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.viewpager.widget.PagerAdapter;
+import androidx.viewpager.widget.ViewPager;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumentation tests for switching the {@link ViewPagerIndicator}'s render mode.
+ */
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class ViewPagerIndicatorRenderModeTest {
+
+    private static final int PAGE_COUNT = 5;
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 40;
+
+    @Test
+    public void setRenderMode_laysOutDotsAgain() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final Context context =
+                        InstrumentationRegistry.getInstrumentation().getTargetContext();
+                final ViewPager viewPager = new ViewPager(context);
+                viewPager.setAdapter(new EmptyPagerAdapter());
+                final ViewPagerIndicator indicator = new ViewPagerIndicator(context);
+                viewPager.addView(indicator);
+                indicator.onAttachedToWindow();
+
+                layOut(indicator);
+                // One view per dot, plus the selected dot.
+                assertEquals(PAGE_COUNT + 1, indicator.getChildCount());
+
+                indicator.setRenderMode(ViewPagerIndicator.RENDER_MODE_CANVAS);
+                layOut(indicator);
+                assertEquals(0, indicator.getChildCount());
+
+                indicator.setRenderMode(ViewPagerIndicator.RENDER_MODE_VIEWS);
+                layOut(indicator);
+                assertEquals(PAGE_COUNT + 1, indicator.getChildCount());
+
+                indicator.onDetachedFromWindow();
+            }
+        });
+    }
+
+    private static void layOut(@NonNull View view) {
+        view.measure(MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    private static final class EmptyPagerAdapter extends PagerAdapter {
+
+        @Override
+        public int getCount() {
+            return PAGE_COUNT;
+        }
+
+        @Override
+        public boolean isViewFromObject(@NonNull View view, @NonNull Object object) {
+            return view == object;
+        }
+
+        @NonNull
+        @Override
+        public Object instantiateItem(@NonNull ViewGroup container, int position) {
+            final View page = new View(container.getContext());
+            container.addView(page);
+            return page;
+        }
+
+        @Override
+        public void destroyItem(@NonNull ViewGroup container,
+                                int position,
+                                @NonNull Object object) {
+            container.removeView((View) object);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2016 Ronald Martin <hello@itsronald.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Last modified 10/12/16 11:22 PM.
+ */
+
+package com.itsronald.widget;
+
+import android.view.Gravity;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Px;
+
+/**
+ * The positions of a horizontally centered row of evenly spaced dots.
+ *
+ * Positions are computed when the inputs change and are then looked up in constant time
+ * without allocating, so animators can use them instead of converting view bounds between
+ * coordinate spaces. Only plain arithmetic is involved, so it can be tested on the JVM.
+ */
+final class DotGeometry {
+
+    @NonNull
+    private int[] lefts = new int[0];
+    @Px
+    private int top;
+
+    private int dotCount;
+    @Px
+    private int dotRadius;
+    @Px
+    private int dotPadding;
+    @Px
+    private int width;
+    @Px
+    private int height;
+    @Px
+    private int paddingTop;
+    @Px
+    private int paddingBottom;
+    private int verticalGravity;
+    private boolean isValid;
+
+    /**
+     * Recompute the dot positions if any of the inputs changed.
+     *
+     * @param width The width of the containing view.
+     * @param height The height of the containing view.
+     * @param paddingTop The top padding of the containing view.
+     * @param paddingBottom The bottom padding of the containing view.
+     * @param gravity The gravity of the dots. Only the vertical gravity is used.
+     * @param dotRadius The radius of each dot.
+     * @param dotPadding The space between adjacent dots.
+     * @param dotCount The number of dots.
+     * @return True if the positions were recomputed.
+     */
+    boolean update(@Px int width,
+                   @Px int height,
+                   @Px int paddingTop,
+                   @Px int paddingBottom,
+                   int gravity,
+                   @Px int dotRadius,
+                   @Px int dotPadding,
+                   int dotCount) {
+        if (matches(width, height, paddingTop, paddingBottom, gravity, dotRadius, dotPadding,
+                dotCount)) {
+            return false;
+        }
+
+        final int verticalGravity = gravity & Gravity.VERTICAL_GRAVITY_MASK;
+        this.width = width;
+        this.height = height;
+        this.paddingTop = paddingTop;
+        this.paddingBottom = paddingBottom;
+        this.verticalGravity = verticalGravity;
+        this.dotRadius = dotRadius;
+        this.dotPadding = dotPadding;
+        this.dotCount = dotCount;
+        isValid = true;
+
+        final int dotDiameter = 2 * dotRadius;
+        switch (verticalGravity) {
+            default:
+            case Gravity.CENTER_VERTICAL:
+                top = (height - paddingTop - paddingBottom) / 2 - dotRadius;
+                break;
+            case Gravity.TOP:
+                top = paddingTop;
+                break;
+            case Gravity.BOTTOM:
+                top = height - paddingBottom - dotDiameter;
+                break;
+        }
+
+        if (lefts.length < dotCount) {
+            lefts = new int[dotCount];
+        }
+        int left = calculateStart(width, dotRadius, dotPadding, dotCount);
+        for (int i = 0; i < dotCount; ++i) {
+            lefts[i] = left;
+            left += dotDiameter + dotPadding;
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the positions were computed for the given inputs, without recomputing them.
+     * The parameters are the same as those of
+     * {@link #update(int, int, int, int, int, int, int, int)}.
+     *
+     * @return True if the positions are up to date for the inputs.
+     */
+    boolean matches(@Px int width,
+                    @Px int height,
+                    @Px int paddingTop,
+                    @Px int paddingBottom,
+                    int gravity,
+                    @Px int dotRadius,
+                    @Px int dotPadding,
+                    int dotCount) {
+        return isValid
+                && this.width == width
+                && this.height == height
+                && this.paddingTop == paddingTop
+                && this.paddingBottom == paddingBottom
+                && this.verticalGravity == (gravity & Gravity.VERTICAL_GRAVITY_MASK)
+                && this.dotRadius == dotRadius
+                && this.dotPadding == dotPadding
+                && this.dotCount == dotCount;
+    }
+
+    /**
+     * Force the next call to {@link #update(int, int, int, int, int, int, int, int)} to
+     * recompute the positions.
+     */
+    void invalidate() {
+        isValid = false;
+    }
+
+    /**
+     * Calculate the starting horizontal position for the row of dots, starting from the center
+     * of the view and moving left for half of the dots.
+     */
+    @Px
+    private static int calculateStart(@Px int width,
+                                      @Px int dotRadius,
+                                      @Px int dotPadding,
+                                      int dotCount) {
+        final float halfDotCount = dotCount / 2f;
+
+        final int dotWidth = 2 * dotRadius;
+        final float totalDotWidth = dotWidth * halfDotCount;
+        // # dot gaps = (numDots - 1), so # dot gaps / 2 = (numDots - 1) / 2 = halfDotCount - 0.5.
+        final float halfDotPaddingCount = Math.max(halfDotCount - 0.5f, 0);
+        final float totalDotPaddingWidth = dotPadding * halfDotPaddingCount;
+
+        int startPosition = width / 2;
+        startPosition -= totalDotWidth + totalDotPaddingWidth;
+        return startPosition;
+    }
+
+    //region Lookups
+
+    int getDotCount() {
+        return dotCount;
+    }
+
+    @Px
+    int getDotRadius() {
+        return dotRadius;
+    }
+
+    @Px
+    int getLeft(int dotIndex) {
+        return lefts[dotIndex];
+    }
+
+    @Px
+    int getTop() {
+        return top;
+    }
+
+    @Px
+    int getCenterX(int dotIndex) {
+        return lefts[dotIndex] + dotRadius;
+    }
+
+    @Px
+    int getCenterY() {
+        return top + dotRadius;
+    }
+
+    //endregion
+}
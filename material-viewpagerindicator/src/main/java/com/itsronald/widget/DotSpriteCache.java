@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2016 Ronald Martin <hello@itsronald.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Last modified 10/12/16 11:22 PM.
+ */
+
+package com.itsronald.widget;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.LruCache;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.Px;
+
+/**
+ * Dots pre-rendered into small bitmaps, shared by every indicator in the process.
+ *
+ * Indicators only use a few combinations of radius and color, so each combination is rendered
+ * once and then copied onto the canvas instead of rasterizing an anti-aliased circle for every
+ * dot on every frame. Radii are in pixels, so the display density is part of the key.
+ *
+ * Bitmaps are evicted in least recently used order beyond {@link #MAX_CACHE_BYTES}, and all of
+ * them are released when the system asks the app to trim its memory. Styles hold on to the
+ * sprite they use and only look it up again after their radius or color changes, or after the
+ * cache's {@link #getGeneration() generation} changes. The cache must only be used from the
+ * main thread.
+ */
+final class DotSpriteCache implements ComponentCallbacks2 {
+
+    /** Enough for several dozen dots of the usual sizes. */
+    static final int MAX_CACHE_BYTES = 256 * 1024;  // 256 KB.
+
+    /** Larger dots are cheaper to draw directly than to keep in memory. */
+    @Px
+    private static final int MAX_SPRITE_RADIUS = 64;
+
+    @Nullable
+    private static DotSpriteCache instance;
+
+    @NonNull
+    private final LruCache<Long, Bitmap> sprites = new LruCache<Long, Bitmap>(MAX_CACHE_BYTES) {
+        @Override
+        protected int sizeOf(Long key, Bitmap sprite) {
+            return sprite.getByteCount();
+        }
+    };
+    @NonNull
+    private final Paint spritePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    @NonNull
+    private final Paint rasterPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    /** Incremented whenever all sprites are released, so that styles drop theirs as well. */
+    private int generation;
+
+    private DotSpriteCache() {
+    }
+
+    /**
+     * Get the cache, registering it for memory trim callbacks the first time.
+     *
+     * @param context Any context in the app.
+     * @return The cache shared by every indicator.
+     */
+    @NonNull
+    static DotSpriteCache getInstance(@NonNull Context context) {
+        if (instance == null) {
+            instance = new DotSpriteCache();
+            context.getApplicationContext().registerComponentCallbacks(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * @return A number that changes whenever sprites obtained before may no longer be used.
+     */
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Get the pre-rendered bitmap of a dot, rendering it first if needed.
+     *
+     * @param radius The radius of the dot.
+     * @param color The color of the dot.
+     * @return The sprite, or null if the dot is too large to cache.
+     */
+    @Nullable
+    Bitmap getSprite(@Px int radius, @ColorInt int color) {
+        if (radius <= 0 || radius > MAX_SPRITE_RADIUS) return null;
+
+        final long key = ((long) radius << 32) | (color & 0xffffffffL);
+        Bitmap sprite = sprites.get(key);
+        if (sprite == null) {
+            final int diameter = 2 * radius;
+            sprite = Bitmap.createBitmap(diameter, diameter, Bitmap.Config.ARGB_8888);
+            rasterPaint.setColor(color);
+            new Canvas(sprite).drawCircle(radius, radius, radius, rasterPaint);
+            sprites.put(key, sprite);
+        }
+        return sprite;
+    }
+
+    /**
+     * Draw a sprite centered on a point.
+     *
+     * @param canvas The canvas on which to draw.
+     * @param sprite A sprite from {@link #getSprite(int, int)}.
+     * @param centerX The horizontal center of the dot.
+     * @param centerY The vertical center of the dot.
+     */
+    void drawSprite(@NonNull Canvas canvas, @NonNull Bitmap sprite, float centerX, float centerY) {
+        // Whole pixels keep the copy exact; filtering at fractional offsets would blur it.
+        final float halfSize = sprite.getWidth() / 2f;
+        canvas.drawBitmap(sprite, Math.round(centerX - halfSize), Math.round(centerY - halfSize),
+                spritePaint);
+    }
+
+    private void releaseSprites() {
+        sprites.evictAll();
+        ++generation;
+    }
+
+    //region ComponentCallbacks2
+
+    @Override
+    public void onTrimMemory(int level) {
+        // Sprites are cheap to render again, so release them at the first sign of pressure.
+        if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            releaseSprites();
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        releaseSprites();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        // Sprites are keyed by pixel sizes, so they stay valid across density changes.
+    }
+
+    //endregion
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2016 Ronald Martin <hello@itsronald.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Last modified 10/12/16 11:22 PM.
+ */
+
+package com.itsronald.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.Px;
+
+/**
+ * The color and radius shared by a group of dots.
+ *
+ * Every dot of an indicator references one of its styles instead of owning a drawable and a
+ * paint, so changing the color or radius of all of them is a single update. Views that use a
+ * style must be invalidated or laid out again after it changes.
+ */
+final class DotStyle {
+
+    @NonNull
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    @Px
+    private int radius;
+    /** If set, full-size dots are copied from pre-rendered bitmaps instead of being drawn. */
+    @Nullable
+    private DotSpriteCache spriteCache;
+    /** The sprite for the current radius and color, or null if the dot is too large. */
+    @Nullable
+    private Bitmap sprite;
+    /** The cache generation in which {@link #sprite} was looked up, or -1 if it must be. */
+    private int spriteGeneration = -1;
+
+    DotStyle(@ColorInt int color, @Px int radius) {
+        paint.setColor(color);
+        this.radius = radius;
+    }
+
+    /**
+     * Draw a dot of this style.
+     *
+     * @param canvas The canvas on which to draw.
+     * @param centerX The horizontal center of the dot.
+     * @param centerY The vertical center of the dot.
+     * @param radius The radius at which to draw the dot, which may differ from the style's
+     *               radius while the dot is scaled.
+     */
+    void drawDot(@NonNull Canvas canvas, float centerX, float centerY, float radius) {
+        final DotSpriteCache spriteCache = this.spriteCache;
+        if (spriteCache != null && radius == this.radius) {
+            if (spriteGeneration != spriteCache.getGeneration()) {
+                sprite = spriteCache.getSprite(this.radius, paint.getColor());
+                spriteGeneration = spriteCache.getGeneration();
+            }
+            if (sprite != null) {
+                spriteCache.drawSprite(canvas, sprite, centerX, centerY);
+                return;
+            }
+        }
+        canvas.drawCircle(centerX, centerY, radius, paint);
+    }
+
+    private void releaseSprite() {
+        sprite = null;
+        spriteGeneration = -1;
+    }
+
+    /**
+     * @return The paint with which to fill dots of this style. Must not be modified.
+     */
+    @NonNull
+    Paint getPaint() {
+        return paint;
+    }
+
+    @ColorInt
+    int getColor() {
+        return paint.getColor();
+    }
+
+    /**
+     * @param color The new color of the dots.
+     * @return True if the color changed.
+     */
+    boolean setColor(@ColorInt int color) {
+        if (paint.getColor() == color) return false;
+        paint.setColor(color);
+        releaseSprite();
+        return true;
+    }
+
+    @Nullable
+    DotSpriteCache getSpriteCache() {
+        return spriteCache;
+    }
+
+    /**
+     * @param spriteCache The cache from which to copy full-size dots, or null to draw them.
+     */
+    void setSpriteCache(@Nullable DotSpriteCache spriteCache) {
+        this.spriteCache = spriteCache;
+        releaseSprite();
+    }
+
+    @Px
+    int getRadius() {
+        return radius;
+    }
+
+    /**
+     * @param radius The new radius of the dots.
+     * @return True if the radius changed.
+     */
+    boolean setRadius(@Px int radius) {
+        if (this.radius == radius) return false;
+        this.radius = radius;
+        releaseSprite();
+        return true;
+    }
+}
@@ -18,24 +18,18 @@
 
 package com.itsronald.widget;
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
-import android.animation.AnimatorSet;
-import android.animation.ObjectAnimator;
-import android.animation.PropertyValuesHolder;
 import android.content.Context;
-import android.graphics.Rect;
-import android.graphics.drawable.ShapeDrawable;
-import android.graphics.drawable.shapes.RectShape;
-import android.os.Build;
-import androidx.annotation.ColorInt;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Path;
+import android.graphics.RectF;
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.Px;
 import androidx.core.view.ViewCompat;
+import android.view.Gravity;
 import android.view.View;
-import android.view.ViewGroup;
-import android.widget.ImageView;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -55,14 +49,14 @@ import static com.itsronald.widget.ViewPagerIndicator.DEFAULT_DOT_PADDING_DIP;
  *
  * Before starting this view's animation, its two dots should invisibly replace two adjacent dots
  * on the indicator itself.
+ *
+ * The parts of the path overlap while it connects and retreats, so they are merged into a single
+ * shape and drawn in one call, painting each pixel of the path once.
  */
-class IndicatorDotPathView extends ViewGroup {
+class IndicatorDotPathView extends View {
 
     //region Constants
 
-    private static final long PATH_STRETCH_ANIM_DURATION = 150; // 150 ms.
-    private static final long PATH_RETREAT_ANIM_DURATION = 100; // 100 ms.
-
     @Retention(RetentionPolicy.SOURCE)
     @IntDef({PATH_DIRECTION_LEFT, PATH_DIRECTION_RIGHT})
     @interface PathDirection {}
@@ -72,31 +66,82 @@ class IndicatorDotPathView extends ViewGroup {
     @PathDirection
     static final int PATH_DIRECTION_RIGHT = 1;
 
+    private static final int START_DOT_INDEX = 0;
+    private static final int END_DOT_INDEX = 1;
+
     //endregion
 
     @Px
     private int dotPadding;
     @Px
     private int dotRadius;
-
-    //region Subviews
-
     @NonNull
-    private final IndicatorDotView startDot;
+    private DotStyle dotStyle;
+    /** Where the two dots are, used to build the path instead of laying out views. */
     @NonNull
-    private final IndicatorDotView endDot;
+    private final DotGeometry pathGeometry = new DotGeometry();
 
-    /** Portion of the path that stretches out from startDot toward endDot. */
-    @NonNull
-    private final DotPathSegment startPathSegment;
-    /** Portion of the path that stretches out from endDot toward startDot. */
+    /** Every visible part of the path, rebuilt when drawn. */
     @NonNull
-    private final DotPathSegment endPathSegment;
-    /** Portion of the path that grows from where startPathDot and endPathDot meet. */
+    private final Path path = new Path();
     @NonNull
-    private final ImageView centerSegment;
-    @NonNull
-    private final ShapeDrawable centerPathShape = new ShapeDrawable(new RectShape());
+    private final RectF partBounds = new RectF();
+
+    //region Parts
+
+    /*
+     * Each part of the path is a shape in this view's coordinate space:
+     *
+     * - Two dots.
+     * - Two segments, one over each dot, that stretch toward the other dot.
+     * - A center segment between the centers of the two dots, which grows once the segments meet.
+     */
+
+    private boolean isStartDotVisible = true;
+    private boolean isEndDotVisible = true;
+    /** The offset of the retreating dot from its resting position. */
+    private float retreatingDotOffsetX;
+
+    private boolean areSegmentsVisible;
+    private float segmentScaleX = 1;
+    private float segmentScaleY = 1;
+    private float startSegmentPivotX;
+    private float endSegmentPivotX;
+    private float segmentPivotY;
+
+    private boolean isCenterSegmentVisible;
+    private float centerScaleX = 1;
+    private float centerScaleY = 1;
+    /** The pivot of the center segment's scale, relative to its top left corner. */
+    private float centerPivotX;
+    private float centerPivotY;
+
+    //endregion
+
+    //region Page change state
+
+    /*
+     * A page change is driven from outside: preparePageChange() looks up the baked tables for the
+     * page change, and the driver then sets the position on each frame. Only primitive fields are
+     * updated while the page change plays.
+     */
+
+    private static final int PHASE_IDLE = 0;
+    private static final int PHASE_RUNNING = 1;
+    private static final int PHASE_ENDED = 2;
+
+    private int connectPhase = PHASE_IDLE;
+    private int retreatPhase = PHASE_IDLE;
+
+    private int retreatingDotIndex = START_DOT_INDEX;
+
+    @Nullable
+    private PageChangeTimeline timeline;
+    /** The last tables used in each direction, reused until the dot size changes. */
+    @Nullable
+    private PageChangeTimeline leftTimeline;
+    @Nullable
+    private PageChangeTimeline rightTimeline;
 
     //endregion
 
@@ -108,82 +153,37 @@ class IndicatorDotPathView extends ViewGroup {
         final float scale = context.getResources().getDisplayMetrics().density;
         this.dotPadding = (int) (DEFAULT_DOT_PADDING_DIP * scale + 0.5);
         this.dotRadius = (int) (DEFAULT_DOT_RADIUS_DIP * scale + 0.5);
-
-        this.startDot = new IndicatorDotView(context);
-        this.endDot = new IndicatorDotView(context);
-        this.startPathSegment = new DotPathSegment(context);
-        this.endPathSegment = new DotPathSegment(context);
-
-        this.centerSegment = new ImageView(context);
-        this.centerSegment.setImageDrawable(centerPathShape);
-
-        init(DEFAULT_DOT_COLOR);
+        this.dotStyle = new DotStyle(DEFAULT_DOT_COLOR, dotRadius);
     }
 
+    /**
+     * @param dotStyle The style of the path, which may be shared with other dots.
+     * @param dotPadding The space between the two dots.
+     */
     IndicatorDotPathView(@NonNull Context context,
-                                @ColorInt int dotColor,
-                                @Px int dotPadding,
-                                @Px int dotRadius) {
+                         @NonNull DotStyle dotStyle,
+                         @Px int dotPadding) {
         this(context);
 
-        this.dotPadding = dotPadding;
-        this.dotRadius = dotRadius;
-
-        setDotColor(dotColor);
+        setDotStyle(dotStyle);
         setDotPadding(dotPadding);
-        setDotRadius(dotRadius);
     }
 
     //endregion
 
-    private void init(@ColorInt int dotColor) {
-        final LayoutParams layoutParams =
-                new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
-        addView(startDot, -1, layoutParams);
-        addView(endDot, -1, layoutParams);
-        addView(startPathSegment, -1, layoutParams);
-        addView(endPathSegment, -1, layoutParams);
-        addView(centerSegment, -1, layoutParams);
-        centerSegment.setVisibility(GONE);
-
-        setDotColor(dotColor);
-        setDotPadding(dotPadding);
-        setDotRadius(dotRadius);
-    }
-
-    @Override
-    protected void onLayout(boolean changed, int l, int t, int r, int b) {
-        // Layout children, starting from the left.
-        final int dotDiameter = 2 * dotRadius;
-        final int top = getPaddingTop();
-        final int bottom = top + dotDiameter;
-        int left = getPaddingLeft();
-
-        startDot.layout(left, top, left + dotDiameter, bottom);
-        startPathSegment.layout(left, top, left + dotDiameter, bottom);
-
-        left += dotRadius;
-        centerSegment.layout(left, top, left + dotPadding + dotDiameter, bottom);
-
-        left += dotRadius + dotPadding;
-        endDot.layout(left, top, left + dotDiameter, bottom);
-        endPathSegment.layout(left, top, left + dotDiameter, bottom);
+    /**
+     * Bring the positions of the two dots up to date with the dot attributes.
+     * The dots are laid out from the left edge of the content area.
+     */
+    private void updatePathGeometry() {
+        final int contentWidth = 4 * dotRadius + dotPadding;
+        pathGeometry.update(contentWidth, getHeight(), getPaddingTop(), getPaddingBottom(),
+                Gravity.TOP, dotRadius, dotPadding, 2);
     }
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        final int widthPadding = getPaddingLeft() + getPaddingRight();
-        final int childWidthSpec = getChildMeasureSpec(widthMeasureSpec,
-                widthPadding, LayoutParams.WRAP_CONTENT);
-        final int heightPadding = getPaddingTop() + getPaddingBottom();
-        final int childHeightSpec = getChildMeasureSpec(heightMeasureSpec,
-                heightPadding, LayoutParams.WRAP_CONTENT);
-
-        startDot.measure(childWidthSpec, childHeightSpec);
-        startPathSegment.measure(childWidthSpec, childHeightSpec);
-        endDot.measure(childWidthSpec, childHeightSpec);
-        endPathSegment.measure(childWidthSpec, childHeightSpec);
-        centerSegment.measure(childWidthSpec, childHeightSpec);
+        final int dotDiameter = 2 * dotRadius;
 
         // Calculate measurement for this view.
         final int width;
@@ -191,41 +191,119 @@ class IndicatorDotPathView extends ViewGroup {
         if (widthMode == MeasureSpec.EXACTLY) {
             width = MeasureSpec.getSize(widthMeasureSpec);
         } else {
-            final int totalDotWidth = startDot.getMeasuredWidth() + endDot.getMeasuredWidth();
+            final int widthPadding = getPaddingLeft() + getPaddingRight();
             final int minWidth = ViewCompat.getMinimumWidth(this);
-            width = Math.max(minWidth, totalDotWidth + dotPadding + widthPadding);
+            width = Math.max(minWidth, 2 * dotDiameter + dotPadding + widthPadding);
         }
 
-        final int height;
-        final int heightMode = MeasureSpec.getMode(heightMeasureSpec);
-        if (heightMode == MeasureSpec.EXACTLY) {
-            height = MeasureSpec.getSize(heightMeasureSpec);
-        } else {
-            final int indicatorHeight = startDot.getMeasuredHeight();
-            final int minHeight = ViewCompat.getMinimumHeight(this);
-            height = Math.max(minHeight, indicatorHeight + heightPadding);
+        final int heightPadding = getPaddingTop() + getPaddingBottom();
+        final int minHeight = ViewCompat.getMinimumHeight(this);
+        final int height = Math.max(minHeight, dotDiameter + heightPadding);
+        setMeasuredDimension(width, ViewCompat.resolveSizeAndState(height, heightMeasureSpec, 0));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        buildPath(false);
+        if (!path.isEmpty()) {
+            canvas.drawPath(path, dotStyle.getPaint());
+        }
+    }
+
+    /**
+     * Collect the visible parts of the path into {@link #path}. Every part is added in the same
+     * direction, so where parts overlap, the default non-zero fill paints them once.
+     *
+     * @param allParts Whether to add every part, whether or not it is visible.
+     */
+    private void buildPath(boolean allParts) {
+        updatePathGeometry();
+        path.rewind();
+
+        final float radius = dotRadius;
+        final float dotDiameter = 2 * radius;
+        final float top = pathGeometry.getTop();
+        final float startLeft = getPaddingLeft() + pathGeometry.getLeft(START_DOT_INDEX);
+        final float endLeft = getPaddingLeft() + pathGeometry.getLeft(END_DOT_INDEX);
+
+        if (allParts || isStartDotVisible) {
+            final float offsetX = retreatingDotIndex == START_DOT_INDEX ? retreatingDotOffsetX : 0;
+            path.addCircle(startLeft + radius + offsetX, top + radius, radius, Path.Direction.CW);
+        }
+        if (allParts || isEndDotVisible) {
+            final float offsetX = retreatingDotIndex == END_DOT_INDEX ? retreatingDotOffsetX : 0;
+            path.addCircle(endLeft + radius + offsetX, top + radius, radius, Path.Direction.CW);
+        }
+
+        if (allParts || areSegmentsVisible) {
+            setScaledBounds(partBounds, startLeft, top, dotDiameter, dotDiameter,
+                    startSegmentPivotX, segmentPivotY, segmentScaleX, segmentScaleY);
+            path.addOval(partBounds, Path.Direction.CW);
+            setScaledBounds(partBounds, endLeft, top, dotDiameter, dotDiameter,
+                    endSegmentPivotX, segmentPivotY, segmentScaleX, segmentScaleY);
+            path.addOval(partBounds, Path.Direction.CW);
         }
 
-        final int childState = ViewCompat.getMeasuredHeightAndState(startDot);
-        final int measuredHeight = ViewCompat.resolveSizeAndState(height, heightMeasureSpec,
-                childState);
-        setMeasuredDimension(width, measuredHeight);
+        if (allParts || isCenterSegmentVisible) {
+            setScaledBounds(partBounds, startLeft + radius, top, endLeft - startLeft, dotDiameter,
+                    centerPivotX, centerPivotY, centerScaleX, centerScaleY);
+            path.addRect(partBounds, Path.Direction.CW);
+        }
+    }
+
+    /**
+     * Compute the bounds of a part scaled around a pivot, as a view's scale properties would.
+     */
+    private static void setScaledBounds(@NonNull RectF bounds,
+                                        float left,
+                                        float top,
+                                        float width,
+                                        float height,
+                                        float pivotX,
+                                        float pivotY,
+                                        float scaleX,
+                                        float scaleY) {
+        final float scaledLeft = left + pivotX * (1 - scaleX);
+        final float scaledTop = top + pivotY * (1 - scaleY);
+        bounds.set(scaledLeft, scaledTop, scaledLeft + width * scaleX, scaledTop + height * scaleY);
+    }
+
+    /**
+     * Draw every part of the path once into an offscreen software bitmap, so that the first page
+     * change does not pay for building the path for the first time. The path must have been
+     * measured.
+     */
+    void prewarm() {
+        final int width = getMeasuredWidth();
+        final int height = getMeasuredHeight();
+        if (width <= 0 || height <= 0) return;
+
+        final Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(bitmap);
+        // Draw every part, since hidden parts would be skipped by onDraw().
+        buildPath(true);
+        canvas.drawPath(path, dotStyle.getPaint());
+        bitmap.recycle();
     }
 
     //region Accessors
 
-    @ColorInt
-    int getDotColor() {
-        // Relies on the invariant that all subviews are the same color.
-        return startDot.getColor();
+    /**
+     * Draw the path with a style, which may be shared with other dots.
+     * The path is laid out again if the radius differs from the last style's.
+     *
+     * @param dotStyle The new style for the path.
+     */
+    void setDotStyle(@NonNull DotStyle dotStyle) {
+        this.dotStyle = dotStyle;
+        invalidate();
+        setDotRadius(dotStyle.getRadius());
     }
 
-    void setDotColor(@ColorInt int dotColor) {
-        startDot.setColor(dotColor);
-        endDot.setColor(dotColor);
-        startPathSegment.setColor(dotColor);
-        endPathSegment.setColor(dotColor);
-        centerPathShape.getPaint().setColor(dotColor);
+    /**
+     * Redraw the path after its style changed.
+     */
+    void invalidateDotStyle() {
         invalidate();
     }
 
@@ -236,7 +314,6 @@ class IndicatorDotPathView extends ViewGroup {
 
     void setDotPadding(@Px int dotPadding) {
         this.dotPadding = dotPadding;
-        centerPathShape.setIntrinsicWidth(dotPadding + 2 * dotRadius);
         invalidate();
         requestLayout();
     }
@@ -246,301 +323,144 @@ class IndicatorDotPathView extends ViewGroup {
         return dotRadius;
     }
 
+    /**
+     * Bring the path's size up to date with the radius of its style.
+     *
+     * @param dotRadius The radius of the path's style.
+     */
     void setDotRadius(@Px int dotRadius) {
-        startDot.setRadius(dotRadius);
-        endDot.setRadius(dotRadius);
-        startPathSegment.setRadius(dotRadius);
-        endPathSegment.setRadius(dotRadius);
-
-        final int dotDiameter = 2 * dotRadius;
-        centerPathShape.setIntrinsicWidth(dotPadding + dotDiameter);
-        centerPathShape.setIntrinsicHeight(dotDiameter);
+        if (this.dotRadius == dotRadius) return;
 
+        this.dotRadius = dotRadius;
         invalidate();
         requestLayout();
     }
 
     //endregion
 
-    //region Dot connection animation
-
-    @NonNull
-    Animator connectPathAnimator() {
-        final Rect startSegmentBounds = viewRectInNeighborCoords(startPathSegment, endPathSegment);
-        final Rect endSegmentBounds = viewRectInNeighborCoords(endPathSegment, startPathSegment);
-
-        final int startSegmentToX = endSegmentBounds.centerX() < 0 ?
-                endSegmentBounds.left : endSegmentBounds.right;
-        final int startSegmentToY = endSegmentBounds.centerY() < 0 ?
-                endSegmentBounds.top : endSegmentBounds.bottom;
-        final int endSegmentToX = startSegmentBounds.centerX() < 0 ?
-                startSegmentBounds.left : startSegmentBounds.right;
-        final int endSegmentToY = startSegmentBounds.centerY() < 0 ?
-                startSegmentBounds.top : startSegmentBounds.bottom;
-
-        final Animator startSegmentAnimator = startPathSegment
-                .stretchAnimator(PATH_STRETCH_ANIM_DURATION, startSegmentToX, startSegmentToY);
-        final Animator endSegmentAnimator = endPathSegment
-                .stretchAnimator(PATH_STRETCH_ANIM_DURATION, endSegmentToX, endSegmentToY);
-
-        final AnimatorSet animatorSet = new AnimatorSet();
-        animatorSet.playTogether(startSegmentAnimator, endSegmentAnimator, centerSegmentGrowAnimator());
-        animatorSet.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                startDot.setVisibility(VISIBLE);
-                endDot.setVisibility(VISIBLE);
-            }
-        });
-
-        return animatorSet;
-    }
+    //region Page change
 
     /**
-     * Animation: fill out the connecting center dot path to form a straight path between the two
-     * dots.
+     * Look up the baked tables of a page change in one direction. Must be called before the
+     * position is set, while the path is laid out over the two dots.
      *
-     * @return An animator that grows pathCenter to the appropriate height.
+     * @param pathDirection The direction in which the path should retreat.
      */
-    @NonNull
-    private Animator centerSegmentGrowAnimator() {
-        final float fromScale = 0f, toScale = 1f;
-
-        final ObjectAnimator growAnimator;
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
-            final PropertyValuesHolder scaleYProperty = PropertyValuesHolder
-                    .ofFloat(View.SCALE_Y, fromScale, toScale);
-            growAnimator = ObjectAnimator.ofPropertyValuesHolder(centerSegment, scaleYProperty);
-        } else {
-            growAnimator = ObjectAnimator.ofFloat(centerSegment, "scaleY", fromScale, toScale);
-        }
-        // Start growing when the two ends of the path meet in the middle.
-        final long animationDuration = PATH_STRETCH_ANIM_DURATION / 4;
-        growAnimator.setStartDelay(animationDuration);
-        growAnimator.setDuration(animationDuration);
-
-        growAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                super.onAnimationStart(animation);
-                centerSegment.setVisibility(VISIBLE);
+    void preparePageChange(@PathDirection int pathDirection) {
+        connectPhase = PHASE_IDLE;
+        retreatPhase = PHASE_IDLE;
+
+        final boolean retreatsRight = pathDirection == PATH_DIRECTION_RIGHT;
+        timeline = retreatsRight ? rightTimeline : leftTimeline;
+        if (timeline == null || !timeline.matches(dotRadius, dotPadding, retreatsRight)) {
+            timeline = PageChangeTimeline.obtain(dotRadius, dotPadding, retreatsRight);
+            if (retreatsRight) {
+                rightTimeline = timeline;
+            } else {
+                leftTimeline = timeline;
             }
-        });
-
-        return growAnimator;
+        }
+        retreatingDotIndex = retreatsRight ? START_DOT_INDEX : END_DOT_INDEX;
     }
 
     /**
-     * Convert the coordinates of one of this view's subviews into the coordinate space of one of
-     * this view's other subviews.
-     *
-     * @param view The view whose bounds to offset into neighbor's coords.
-     * @param neighbor The view into whose coordinate space to offset view's bounds.
-     * @return The bounds of view in neighbor's coordinate space.
+     * @return The baked tables of the prepared page change, or null if none was prepared.
      */
-    @NonNull
-    private Rect viewRectInNeighborCoords(@NonNull View view, @NonNull View neighbor) {
-        final Rect bounds = new Rect();
-        view.getDrawingRect(bounds);
-        offsetDescendantRectToMyCoords(view, bounds);
-        offsetRectIntoDescendantCoords(neighbor, bounds);
-        return bounds;
-    }
-
-    //endregion
-
-    //region Retreat animation
-
-    @NonNull
-    Animator retreatConnectedPathAnimator(@PathDirection int pathDirection) {
-        final IndicatorDotView fromDot = pathDirection == PATH_DIRECTION_RIGHT ? startDot : endDot;
-        final IndicatorDotView toDot = pathDirection == PATH_DIRECTION_LEFT ? startDot : endDot;
-        return retreatConnectedPathAnimator(fromDot, toDot);
-    }
-
-    @NonNull
-    private Animator retreatConnectedPathAnimator(@NonNull IndicatorDotView fromDot,
-                                                  @NonNull IndicatorDotView toDot) {
-        Rect endDotBounds = viewRectInNeighborCoords(toDot, fromDot);
-        float toX = endDotBounds.left;
-        float toY = endDotBounds.top;
-        final Animator dotRetreatAnimator =
-                retreatDotAnimator(fromDot, toX, toY, PATH_RETREAT_ANIM_DURATION);
-
-        endDotBounds = viewRectInNeighborCoords(toDot, centerSegment);
-        toX = endDotBounds.centerX() <= 0 ? 0 : centerSegment.getWidth();
-        toY = endDotBounds.centerY() <= 0 ? 0 : centerSegment.getHeight();
-        final Animator pathRetreatAnimator =
-                retreatCenterSegmentAnimator(toX, toY, PATH_RETREAT_ANIM_DURATION);
-
-        final AnimatorSet animatorSet = new AnimatorSet();
-        animatorSet.playTogether(dotRetreatAnimator, pathRetreatAnimator);
-        return animatorSet;
+    @Nullable
+    PageChangeTimeline getTimeline() {
+        return timeline;
     }
 
     /**
-     * Animation: Retreat an indicator dot to a specified position.
-     * After the animation, the dot will be invisibly moved back to its original position.
+     * Play the page change back at a position.
+     *
+     * Connect: both path segments stretch toward each other until they form a path, and the
+     * center of the path fills out once they meet.
+     *
+     * Retreat: the connected path shrinks into one of its two dots. Afterwards, the retreating
+     * dot is invisibly moved back to its original position.
      *
-     * @param retreatingDot The dot that should be animated.
-     * @param toX The horizontal coordinate to which the dot should move (in its own coordinate space).
-     * @param toY The vertical coordinate to which the dot should move (in its own coordinate space).
-     * @param animationDuration How long the movement should take, in milliseconds.
-     * @return An animator that moves the dot when started.
+     * @param position The position in the page change, from 0 to 1.
      */
-    @NonNull
-    private Animator retreatDotAnimator(@NonNull final IndicatorDotView retreatingDot,
-                                        final float toX,
-                                        final float toY,
-                                        final long animationDuration) {
-        final Animator dotSlideAnimator = retreatingDot
-                .slideAnimator(toX, toY, animationDuration);
-
-        final float originalTranslationX = retreatingDot.getTranslationX();
-        final float originalTranslationY = retreatingDot.getTranslationY();
-        dotSlideAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                retreatingDot.setVisibility(INVISIBLE);
-                retreatingDot.setTranslationX(originalTranslationX);
-                retreatingDot.setTranslationY(originalTranslationY);
+    void setPageChangePosition(float position) {
+        final PageChangeTimeline timeline = this.timeline;
+        if (timeline == null) return;
+        if (connectPhase != PHASE_ENDED) {
+            if (connectPhase == PHASE_IDLE) {
+                connectPhase = PHASE_RUNNING;
+                isStartDotVisible = true;
+                isEndDotVisible = true;
+                areSegmentsVisible = true;
+                startSegmentPivotX = timeline.startSegmentPivotX;
+                endSegmentPivotX = timeline.endSegmentPivotX;
+                segmentPivotY = timeline.segmentPivotY;
+                // The center segment grows from its middle.
+                centerPivotX = (dotRadius + dotPadding + dotRadius) / 2f;
+                centerPivotY = dotRadius;
             }
-        });
 
-        return dotSlideAnimator;
-    }
+            segmentScaleX = PageChangeTimeline.sample(timeline.segmentScaleX, position);
+            segmentScaleY = PageChangeTimeline.sample(timeline.segmentScaleY, position);
 
-    @NonNull
-    private Animator retreatCenterSegmentAnimator(final float toX,
-                                                  final float toY,
-                                                  final long animationDuration) {
-        final float originalScale = 1, scaleX = 0, scaleY = 1;
-
-        final Animator animator = scaleAnimator(centerSegment, originalScale, scaleX, scaleY);
-
-        // Choose the corner of the view farthest from the destination location.
-        final float originalPivotX = getPivotX();
-        final float originalPivotY = getPivotY();
-        final float pivotX = Math.max(0,  Math.min(toX, centerSegment.getWidth()));
-        final float pivotY = Math.max(0, Math.min(toY, centerSegment.getHeight()));
-        animator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                super.onAnimationStart(animation);
-                centerSegment.setPivotX(pivotX);
-                centerSegment.setPivotY(pivotY);
+            if (PageChangeTimeline.isVisible(timeline.centerVisibility, position)) {
+                isCenterSegmentVisible = true;
+                centerScaleY = PageChangeTimeline.sample(timeline.centerScaleY, position);
             }
 
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                // Reset values.
-                centerSegment.setVisibility(INVISIBLE);
-                centerSegment.setScaleX(originalScale);
-                centerSegment.setScaleY(originalScale);
-                centerSegment.setPivotX(originalPivotX);
-                centerSegment.setPivotY(originalPivotY);
+            if (position >= PageChangeTimeline.SLIDE_START_POSITION) {
+                connectPhase = PHASE_ENDED;
+                resetSegments();
             }
-        });
-        animator.setDuration(animationDuration);
-
-        return animator;
-    }
+        }
 
+        if (retreatPhase != PHASE_ENDED && position >= PageChangeTimeline.RETREAT_START_POSITION) {
+            if (retreatPhase == PHASE_IDLE) {
+                retreatPhase = PHASE_RUNNING;
+                centerPivotX = timeline.centerRetreatPivotX;
+                centerPivotY = timeline.centerRetreatPivotY;
+            }
 
-    //endregion
+            retreatingDotOffsetX =
+                    PageChangeTimeline.sample(timeline.retreatTranslationX, position);
+            centerScaleX = PageChangeTimeline.sample(timeline.centerScaleX, position);
 
-    @NonNull
-    private static Animator scaleAnimator(final View view,
-                                          float originalScale,
-                                          float scaleX,
-                                          float scaleY) {
-        final Animator animator;
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
-            final PropertyValuesHolder scaleXProperty =
-                    PropertyValuesHolder.ofFloat(View.SCALE_X, originalScale, scaleX);
-            final PropertyValuesHolder scaleYProperty =
-                    PropertyValuesHolder.ofFloat(View.SCALE_Y, originalScale, scaleY);
-            animator = ObjectAnimator.ofPropertyValuesHolder(view, scaleXProperty, scaleYProperty);
-        } else {
-            final Animator scaleXAnimator =
-                    ObjectAnimator.ofFloat(view, "scaleX", originalScale, scaleX);
-            final Animator scaleYAnimator =
-                    ObjectAnimator.ofFloat(view, "scaleY", originalScale, scaleY);
-
-            final AnimatorSet animatorSet = new AnimatorSet();
-            animatorSet.playTogether(scaleXAnimator, scaleYAnimator);
-            animator = animatorSet;
+            if (position >= 1) {
+                retreatPhase = PHASE_ENDED;
+                if (retreatingDotIndex == START_DOT_INDEX) {
+                    isStartDotVisible = false;
+                } else {
+                    isEndDotVisible = false;
+                }
+                resetRetreat();
+            }
         }
-        return animator;
+        invalidate();
     }
 
     /**
-     * An IndicatorDotView that can stretch one of its ends to another location on the screen.
+     * Return every part of the path to its resting state. Called when a page change is
+     * interrupted before its phases have finished.
      */
-    private static class DotPathSegment extends IndicatorDotView {
-
-        DotPathSegment(@NonNull Context context) {
-            super(context);
-        }
-
-        //region Path creation
-
-        /**
-         * Animation: Stretch one end of this dot toward another location on the screen.
-         * When the animation is finished, reset this dot to its original size and position and
-         * make it invisible.
-         *
-         * @param animationDuration How long the animation should take, in milliseconds.
-         * @param toX Where to stretch this view horizontally in this view's coordinate space.
-         * @param toY Where to stretch this view vertically in this view's coordinate space.
-         * @return An animator.
-         */
-        @NonNull
-        Animator stretchAnimator(long animationDuration, final float toX, final float toY) {
-            // Since the provided coordinates are in this view's coordinate space, the absolute distance
-            // to the coordinate is the value of the coordinate itself.
-            final float distanceX = Math.abs(toX) + (toX < 0 ? getWidth() : 0);
-            final float distanceY = Math.abs(toY) + (toY < 0 ? getHeight() : 0);
-
-            final float scaleX = distanceX / getWidth();
-            final float scaleY = distanceY / getHeight();
-            final float originalScale = 1;
-
-            final Animator animator = scaleAnimator(this, originalScale, scaleX, scaleY);
-
-            animator.setDuration(animationDuration);
-
-            final float originalPivotX = getPivotX();
-            final float originalPivotY = getPivotY();
-            animator.addListener(new AnimatorListenerAdapter() {
-                @Override
-                public void onAnimationStart(Animator animation) {
-                    setVisibility(VISIBLE);
-                    setStretchAnimatorPivot(toX, toY);
-                }
-
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    // Reset values.
-                    setVisibility(INVISIBLE);
-                    setScaleX(originalScale);
-                    setScaleY(originalScale);
-                    setStretchAnimatorPivot(originalPivotX, originalPivotY);
-                }
-            });
-
-            return animator;
-        }
-
-        private void setStretchAnimatorPivot(float toX, float toY) {
-            // Ensure pivot is within the view's bounds.
-            float pivotX = getWidth() - Math.max(0,  Math.min(toX, getWidth()));
-            float pivotY = getHeight() - Math.max(0, Math.min(toY, getHeight()));
+    void reset() {
+        connectPhase = PHASE_ENDED;
+        retreatPhase = PHASE_ENDED;
+        resetSegments();
+        resetRetreat();
+        invalidate();
+    }
 
-            setPivotX(pivotX);
-            setPivotY(pivotY);
-        }
+    private void resetSegments() {
+        areSegmentsVisible = false;
+        segmentScaleX = 1;
+        segmentScaleY = 1;
+    }
 
-        //endregion
+    private void resetRetreat() {
+        retreatingDotOffsetX = 0;
+        isCenterSegmentVisible = false;
+        centerScaleX = 1;
+        centerScaleY = 1;
     }
+
+    //endregion
 }
@@ -26,9 +26,8 @@ import android.animation.PropertyValuesHolder;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.drawable.ShapeDrawable;
-import android.graphics.drawable.shapes.OvalShape;
 import android.os.Build;
 import androidx.annotation.ColorInt;
 import androidx.annotation.Dimension;
@@ -38,12 +37,13 @@ import androidx.annotation.Px;
 import android.util.AttributeSet;
 import android.view.View;
 import android.view.ViewAnimationUtils;
-import android.widget.ImageView;
 
 /**
  * A circular dot used to indicate a page in a ViewPager.
+ *
+ * The dot draws itself with a {@link DotStyle} that can be shared with other dots.
  */
-class IndicatorDotView extends ImageView {
+class IndicatorDotView extends View {
 
     //region Constants
     @NonNull
@@ -63,9 +63,7 @@ class IndicatorDotView extends ImageView {
     //endregion
 
     @NonNull
-    private final ShapeDrawable dot = new ShapeDrawable(new OvalShape());
-    @Px
-    private int dotRadius;
+    private DotStyle style;
 
     //region Constructors
 
@@ -101,42 +99,89 @@ class IndicatorDotView extends ImageView {
 
         final float scale = getResources().getDisplayMetrics().density;
         final int defaultDotRadius = (int) (DEFAULT_DOT_RADIUS_DIP * scale + 0.5);
-        dotRadius = attributes.getDimensionPixelSize(R.styleable.IndicatorDotView_dotRadius, defaultDotRadius);
-        setRadius(dotRadius);
-
-        final int dotColor = attributes.getColor(R.styleable.IndicatorDotView_dotColor, DEFAULT_DOT_COLOR);
-        setColor(dotColor);
+        final int dotRadius = attributes
+                .getDimensionPixelSize(R.styleable.IndicatorDotView_dotRadius, defaultDotRadius);
+        final int dotColor = attributes
+                .getColor(R.styleable.IndicatorDotView_dotColor, DEFAULT_DOT_COLOR);
+        style = new DotStyle(dotColor, dotRadius);
 
         attributes.recycle();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        final int diameter = 2 * style.getRadius();
+        setMeasuredDimension(
+                resolveSizeAndState(diameter + getPaddingLeft() + getPaddingRight(),
+                        widthMeasureSpec, 0),
+                resolveSizeAndState(diameter + getPaddingTop() + getPaddingBottom(),
+                        heightMeasureSpec, 0));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        final int width = getWidth() - getPaddingLeft() - getPaddingRight();
+        final int height = getHeight() - getPaddingTop() - getPaddingBottom();
+        final float centerX = getPaddingLeft() + width / 2f;
+        final float centerY = getPaddingTop() + height / 2f;
+        final float radius = Math.min(width, height) / 2f;
+        if (isScaled()) {
+            // A sprite would be resampled along with the view and come out blurry.
+            canvas.drawCircle(centerX, centerY, radius, style.getPaint());
+        } else {
+            style.drawDot(canvas, centerX, centerY, radius);
+        }
+    }
 
-        setImageDrawable(dot);
+    @Override
+    public void setScaleX(float scaleX) {
+        final boolean wasScaled = isScaled();
+        super.setScaleX(scaleX);
+        if (isScaled() != wasScaled) {
+            // Scaling alone does not redraw the dot, so switch between sprite and circle here.
+            invalidate();
+        }
+    }
+
+    @Override
+    public void setScaleY(float scaleY) {
+        final boolean wasScaled = isScaled();
+        super.setScaleY(scaleY);
+        if (isScaled() != wasScaled) {
+            invalidate();
+        }
+    }
+
+    private boolean isScaled() {
+        return getScaleX() != 1 || getScaleY() != 1;
     }
 
     //region Accessors
 
     /**
-     * Get this dot's current radius.
+     * Draw this dot with another style, which may be shared with other dots.
      *
-     * @return The dot's current radius, in pixels.
+     * @param style The new style for the dot.
      */
-    @Px
-    int getRadius() {
-        return dotRadius;
+    void setStyle(@NonNull DotStyle style) {
+        if (this.style == style) return;
+
+        final boolean radiusChanged = this.style.getRadius() != style.getRadius();
+        this.style = style;
+        if (radiusChanged) {
+            requestLayout();
+        }
+        invalidate();
     }
 
     /**
-     * Set the preferred dot radius for this view.
+     * Get this dot's current radius.
      *
-     * @param newRadius The new radius, in pixels.
+     * @return The dot's current radius, in pixels.
      */
-    void setRadius(@Px int newRadius) {
-        dotRadius = newRadius;
-
-        final int diameter = newRadius * 2;
-        dot.setIntrinsicWidth(diameter);
-        dot.setIntrinsicHeight(diameter);
-
-        invalidate();
+    @Px
+    int getRadius() {
+        return style.getRadius();
     }
 
     /**
@@ -146,16 +191,7 @@ class IndicatorDotView extends ImageView {
      */
     @ColorInt
     int getColor() {
-        return dot.getPaint().getColor();
-    }
-
-    /**
-     * Set a new dot color for this view.
-     *
-     * @param color The new color for the dot.
-     */
-    void setColor(@ColorInt int color) {
-        dot.getPaint().setColor(color);
+        return style.getColor();
     }
 
     //endregion
@@ -203,7 +239,7 @@ class IndicatorDotView extends ImageView {
         final int oldScale = 0, newScale = 1;
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
             animator = ViewAnimationUtils
-                    .createCircularReveal(this, centerX, centerY, 0, dotRadius);
+                    .createCircularReveal(this, centerX, centerY, 0, style.getRadius());
         } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
             final PropertyValuesHolder scaleX = PropertyValuesHolder
                     .ofFloat(View.SCALE_X, oldScale, newScale);
@@ -222,44 +258,4 @@ class IndicatorDotView extends ImageView {
     }
 
     //endregion
-
-    //region Slide animation
-
-    /**
-     * Animation: Slide this view to another location on the screen.
-     *
-     * @param toX The horizontal coordinate to which this view should move, in this view's
-     *            coordinate space.
-     * @param toY The vertical coordinate to which this view should move, in this view's
-     *            coordinate space.
-     * @return An animator that will move this view to (toX, toY) when started.
-     */
-    @NonNull
-    Animator slideAnimator(final float toX, final float toY, final long animationDuration) {
-        final float fromX = getTranslationX();
-        final float fromY = getTranslationY();
-
-        final Animator animator;
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
-            final PropertyValuesHolder translationX = PropertyValuesHolder
-                    .ofFloat(View.TRANSLATION_X, fromX, toX);
-            final PropertyValuesHolder translationY = PropertyValuesHolder
-                    .ofFloat(View.TRANSLATION_Y, fromY, toY);
-            animator = ObjectAnimator.ofPropertyValuesHolder(this, translationX, translationY);
-        } else {
-            final Animator translationXAnimator = ObjectAnimator
-                    .ofFloat(this, "translationX", fromX, toX);
-            final Animator translationYAnimator = ObjectAnimator
-                    .ofFloat(this, "translationY", fromY, toY);
-
-            final AnimatorSet animatorSet = new AnimatorSet();
-            animatorSet.playTogether(translationXAnimator, translationYAnimator);
-            animator = animatorSet;
-        }
-        animator.setDuration(animationDuration);
-
-        return animator;
-    }
-
-    //endregion
 }
@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2016 Ronald Martin <hello@itsronald.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Last modified 10/12/16 11:22 PM.
+ */
+
+package com.itsronald.widget;
+
+import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Steps the page change animations of every indicator in the process from a single frame
+ * callback.
+ *
+ * Screens can show many indicators that change pages at the same time. Instead of each of them
+ * registering its own frame callbacks, one callback is registered while any animation runs and
+ * removed once all of them have finished. At most {@link #getMaxRunningAnimations()} animations
+ * run at once; animations started beyond that limit jump straight to their end.
+ *
+ * The scheduler must only be used from the main thread.
+ */
+final class IndicatorFrameScheduler {
+
+    static final int DEFAULT_MAX_RUNNING_ANIMATIONS = 8;
+
+    /** The delay between frames below API 16, where {@link Choreographer} is unavailable. */
+    private static final long FALLBACK_FRAME_DELAY = 16;  // 16 ms.
+
+    @Nullable
+    private static IndicatorFrameScheduler instance;
+
+    @NonNull
+    private final List<Animation> runningAnimations = new ArrayList<>();
+    /** Reused on each frame so that animations can start or stop while others are stepped. */
+    @NonNull
+    private final List<Animation> steppingAnimations = new ArrayList<>();
+    private int maxRunningAnimations = DEFAULT_MAX_RUNNING_ANIMATIONS;
+    private boolean isFrameScheduled;
+
+    @Nullable
+    private Choreographer.FrameCallback choreographerCallback;
+    @Nullable
+    private Handler fallbackHandler;
+    @Nullable
+    private Runnable fallbackCallback;
+
+    private IndicatorFrameScheduler() {
+    }
+
+    @NonNull
+    static IndicatorFrameScheduler getInstance() {
+        if (instance == null) {
+            instance = new IndicatorFrameScheduler();
+        }
+        return instance;
+    }
+
+    //region Accessors
+
+    int getMaxRunningAnimations() {
+        return maxRunningAnimations;
+    }
+
+    void setMaxRunningAnimations(int maxRunningAnimations) {
+        if (maxRunningAnimations < 0) {
+            throw new IllegalArgumentException(
+                    "maxRunningAnimations must be non-negative, was " + maxRunningAnimations);
+        }
+        this.maxRunningAnimations = maxRunningAnimations;
+    }
+
+    //endregion
+
+    //region Scheduling
+
+    private void start(@NonNull Animation animation) {
+        if (runningAnimations.size() >= maxRunningAnimations) {
+            // Over the limit: apply the animation's end state without animating.
+            animation.onStart();
+            animation.onFrame(1);
+            animation.onEnd();
+            return;
+        }
+
+        runningAnimations.add(animation);
+        animation.isStarted = true;
+        animation.startTime = -1;
+        animation.scaledDuration = (long) (animation.duration * getDurationScale());
+        animation.onStart();
+        scheduleFrame();
+    }
+
+    private void stop(@NonNull Animation animation) {
+        animation.isStarted = false;
+        runningAnimations.remove(animation);
+        if (runningAnimations.isEmpty()) {
+            unscheduleFrame();
+        }
+    }
+
+    private void doFrame(long frameTimeMillis) {
+        isFrameScheduled = false;
+
+        final List<Animation> animations = steppingAnimations;
+        for (int i = 0, count = runningAnimations.size(); i < count; ++i) {
+            animations.add(runningAnimations.get(i));
+        }
+        for (int i = 0, count = animations.size(); i < count; ++i) {
+            final Animation animation = animations.get(i);
+            // An earlier animation's callbacks may have stopped this one.
+            if (animation.isStarted) {
+                animation.step(frameTimeMillis);
+            }
+        }
+        animations.clear();
+
+        if (!runningAnimations.isEmpty()) {
+            scheduleFrame();
+        }
+    }
+
+    private void scheduleFrame() {
+        if (isFrameScheduled) return;
+        isFrameScheduled = true;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            Choreographer.getInstance().postFrameCallback(getChoreographerCallback());
+        } else {
+            getFallbackHandler().postDelayed(getFallbackCallback(), FALLBACK_FRAME_DELAY);
+        }
+    }
+
+    private void unscheduleFrame() {
+        if (!isFrameScheduled) return;
+        isFrameScheduled = false;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            Choreographer.getInstance().removeFrameCallback(getChoreographerCallback());
+        } else {
+            getFallbackHandler().removeCallbacks(getFallbackCallback());
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    @NonNull
+    private Choreographer.FrameCallback getChoreographerCallback() {
+        if (choreographerCallback == null) {
+            choreographerCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    // Frame times share the uptime clock's time base.
+                    IndicatorFrameScheduler.this.doFrame(frameTimeNanos / 1000000);
+                }
+            };
+        }
+        return choreographerCallback;
+    }
+
+    @NonNull
+    private Handler getFallbackHandler() {
+        if (fallbackHandler == null) {
+            fallbackHandler = new Handler(Looper.getMainLooper());
+        }
+        return fallbackHandler;
+    }
+
+    @NonNull
+    private Runnable getFallbackCallback() {
+        if (fallbackCallback == null) {
+            fallbackCallback = new Runnable() {
+                @Override
+                public void run() {
+                    doFrame(SystemClock.uptimeMillis());
+                }
+            };
+        }
+        return fallbackCallback;
+    }
+
+    /**
+     * Get the system's animator duration scale, which is only exposed directly from API 26.
+     * Indicators check for animations being turned off altogether before starting one.
+     */
+    private static float getDurationScale() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            return ValueAnimator.getDurationScale();
+        }
+        return 1;
+    }
+
+    //endregion
+
+    /**
+     * A linear animation stepped by the scheduler. Its callbacks follow the order of an
+     * {@link android.animation.Animator}'s listener: start, then frames, then cancel and/or end.
+     */
+    abstract static class Animation {
+
+        private final long duration;
+        private long scaledDuration;
+        /** The time of the first frame, or -1 if it has not been stepped yet. */
+        private long startTime = -1;
+        private boolean isStarted;
+
+        /**
+         * @param duration The unscaled duration of the animation, in milliseconds.
+         */
+        Animation(long duration) {
+            this.duration = duration;
+        }
+
+        final boolean isStarted() {
+            return isStarted;
+        }
+
+        /**
+         * Start the animation. If too many animations are already running, it is ended at once.
+         */
+        final void start() {
+            if (isStarted) return;
+            getInstance().start(this);
+        }
+
+        /**
+         * Stop the animation where it is.
+         */
+        final void cancel() {
+            if (!isStarted) return;
+            getInstance().stop(this);
+            onCancel();
+            onEnd();
+        }
+
+        /**
+         * Jump the animation to its end.
+         */
+        final void end() {
+            if (!isStarted) return;
+            getInstance().stop(this);
+            onFrame(1);
+            onEnd();
+        }
+
+        private void step(long frameTimeMillis) {
+            if (startTime < 0) {
+                startTime = frameTimeMillis;
+            }
+            final long playTime = frameTimeMillis - startTime;
+            final float fraction = scaledDuration > 0
+                    ? Math.min(1, (float) playTime / scaledDuration)
+                    : 1;
+            onFrame(fraction);
+            if (fraction >= 1 && isStarted) {
+                getInstance().stop(this);
+                onEnd();
+            }
+        }
+
+        /** Called when the animation starts, before its first frame. */
+        void onStart() {
+        }
+
+        /**
+         * Called on each frame while the animation runs.
+         *
+         * @param fraction The linear fraction of the animation, from 0 to 1.
+         */
+        abstract void onFrame(float fraction);
+
+        /** Called when the animation is cancelled, before {@link #onEnd()}. */
+        void onCancel() {
+        }
+
+        /** Called when the animation stops for any reason. */
+        void onEnd() {
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2016 Ronald Martin <hello@itsronald.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Last modified 10/12/16 11:22 PM.
+ */
+
+package com.itsronald.widget;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Px;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The timing of a page change animation in {@link ViewPagerIndicator#RENDER_MODE_VIEWS}.
+ *
+ * A page change plays three phases back to back:
+ *
+ * 1. Connect: the two dots stretch toward each other until they form a path.
+ * 2. Slide: the selected dot slides along the path to the new page's dot.
+ * 3. Retreat: the path shrinks into the new page's dot while the last page's dot is revealed.
+ *
+ * The timing never changes and the path only depends on the dot radius, the dot padding and the
+ * direction of the page change, so each combination is baked once into tables of view properties
+ * sampled across the page change. Playing a page change back is then an array lookup and a
+ * linear interpolation per property on each frame. Tables are cached by {@link #obtain}.
+ *
+ * Times in the tables are positions: fractions of {@link #TOTAL_DURATION} from 0 to 1.
+ */
+final class PageChangeTimeline {
+
+    static final long CONNECT_DURATION = 150;   // 150 ms.
+    static final long SLIDE_DURATION = 150;     // 150 ms.
+    static final long RETREAT_DURATION = 100;   // 100 ms.
+
+    static final long CONNECT_START = 0;
+    static final long SLIDE_START = CONNECT_START + CONNECT_DURATION;
+    static final long RETREAT_START = SLIDE_START + SLIDE_DURATION;
+    static final long TOTAL_DURATION = RETREAT_START + RETREAT_DURATION;
+
+    /*
+     * The center of the path grows between these fractions of the connect phase, starting when
+     * the two ends of the path meet in the middle.
+     */
+    static final float CENTER_GROW_START = 0.25f;
+    static final float CENTER_GROW_END = 0.5f;
+
+    static final float SLIDE_START_POSITION = (float) SLIDE_START / TOTAL_DURATION;
+    static final float RETREAT_START_POSITION = (float) RETREAT_START / TOTAL_DURATION;
+
+    /**
+     * The number of intervals between samples. Each interval is 5 ms, so every phase starts
+     * exactly on a sample.
+     */
+    static final int SAMPLE_COUNT = 80;
+
+    /** The most tables kept at once. Only a handful of dot sizes are ever used together. */
+    private static final int MAX_CACHED_TIMELINES = 8;
+
+    /** Tables are only baked and read on the main thread. */
+    @NonNull
+    private static final Map<Long, PageChangeTimeline> cache =
+            new LinkedHashMap<Long, PageChangeTimeline>(MAX_CACHED_TIMELINES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, PageChangeTimeline> eldest) {
+                    return size() > MAX_CACHED_TIMELINES;
+                }
+            };
+
+    //region Tables
+
+    /*
+     * Tables of SAMPLE_COUNT + 1 samples, read with sample() unless noted otherwise.
+     */
+
+    /** The scale of both path segments as they stretch toward each other. */
+    @NonNull
+    final float[] segmentScaleX;
+    @NonNull
+    final float[] segmentScaleY;
+    /** The scale of the center of the path as it fills out, then shrinks. */
+    @NonNull
+    final float[] centerScaleX;
+    @NonNull
+    final float[] centerScaleY;
+    /** Whether the center of the path is visible, read with isVisible(). */
+    @NonNull
+    final float[] centerVisibility;
+    /** The offset of the retreating dot from its resting position. */
+    @NonNull
+    final float[] retreatTranslationX;
+    /** How far the selected dot has slid toward the new page's dot, from 0 to 1. */
+    @NonNull
+    final float[] slideFraction;
+    /** How far the last page's dot has been revealed, from 0 to 1. */
+    @NonNull
+    final float[] revealFraction;
+
+    /*
+     * Pivots only change between phases, so they are kept as single values.
+     */
+
+    @Px
+    final float startSegmentPivotX;
+    @Px
+    final float endSegmentPivotX;
+    @Px
+    final float segmentPivotY;
+    @Px
+    final float centerRetreatPivotX;
+    @Px
+    final float centerRetreatPivotY;
+
+    //endregion
+
+    /*
+     * The inputs from which the tables were baked.
+     */
+
+    @Px
+    private final int dotRadius;
+    @Px
+    private final int dotPadding;
+    private final boolean retreatsRight;
+
+    private PageChangeTimeline(@Px int dotRadius, @Px int dotPadding, boolean retreatsRight) {
+        this.dotRadius = dotRadius;
+        this.dotPadding = dotPadding;
+        this.retreatsRight = retreatsRight;
+
+        final int dotDiameter = 2 * dotRadius;
+        final int dotSpacing = dotDiameter + dotPadding;
+        final int centerWidth = dotRadius + dotPadding + dotRadius;
+
+        // Each segment stretches from its own dot over the far edge of the other dot.
+        final float stretchScaleX = dotDiameter > 0
+                ? (float) (dotSpacing + dotDiameter) / dotDiameter
+                : 1;
+        startSegmentPivotX = 0;
+        endSegmentPivotX = dotDiameter;
+        segmentPivotY = 0;
+
+        // The center shrinks toward the end that overlaps the new page's dot.
+        centerRetreatPivotX = retreatsRight ? centerWidth : 0;
+        centerRetreatPivotY = dotDiameter;
+        final float retreatToX = retreatsRight ? dotSpacing : -dotSpacing;
+
+        segmentScaleX = new float[SAMPLE_COUNT + 1];
+        segmentScaleY = new float[SAMPLE_COUNT + 1];
+        centerScaleX = new float[SAMPLE_COUNT + 1];
+        centerScaleY = new float[SAMPLE_COUNT + 1];
+        centerVisibility = new float[SAMPLE_COUNT + 1];
+        retreatTranslationX = new float[SAMPLE_COUNT + 1];
+        slideFraction = new float[SAMPLE_COUNT + 1];
+        revealFraction = new float[SAMPLE_COUNT + 1];
+
+        for (int i = 0; i <= SAMPLE_COUNT; ++i) {
+            final float time = (float) i * TOTAL_DURATION / SAMPLE_COUNT;
+
+            final float connect = phaseFraction(time, CONNECT_START, CONNECT_DURATION);
+            segmentScaleX[i] = 1 + (stretchScaleX - 1) * ease(connect);
+            segmentScaleY[i] = 1;
+
+            final float grow = (connect - CENTER_GROW_START)
+                    / (CENTER_GROW_END - CENTER_GROW_START);
+            centerVisibility[i] = grow > 0 ? 1 : 0;
+            centerScaleY[i] = ease(Math.max(0, Math.min(1, grow)));
+
+            slideFraction[i] = ease(phaseFraction(time, SLIDE_START, SLIDE_DURATION));
+
+            final float retreat = ease(phaseFraction(time, RETREAT_START, RETREAT_DURATION));
+            centerScaleX[i] = 1 - retreat;
+            retreatTranslationX[i] = retreatToX * retreat;
+            revealFraction[i] = retreat;
+        }
+    }
+
+    /**
+     * Get the tables for a page change, baking them if they are not cached. Callers keep the
+     * tables they obtained and only call this again when the dot size changes, since each
+     * lookup allocates a key.
+     *
+     * @param dotRadius The radius of the dots.
+     * @param dotPadding The space between the two dots.
+     * @param retreatsRight True if the path retreats into its right dot.
+     * @return The tables for the page change.
+     */
+    @NonNull
+    static PageChangeTimeline obtain(@Px int dotRadius, @Px int dotPadding, boolean retreatsRight) {
+        final long key = ((long) dotRadius << 32)
+                | ((dotPadding & 0x7fffffffL) << 1)
+                | (retreatsRight ? 1 : 0);
+        PageChangeTimeline timeline = cache.get(key);
+        if (timeline == null) {
+            timeline = new PageChangeTimeline(dotRadius, dotPadding, retreatsRight);
+            cache.put(key, timeline);
+        }
+        return timeline;
+    }
+
+    /**
+     * Check whether these tables were baked for a page change.
+     *
+     * @param dotRadius The radius of the dots.
+     * @param dotPadding The space between the two dots.
+     * @param retreatsRight True if the path retreats into its right dot.
+     * @return True if the tables can be used for the page change.
+     */
+    boolean matches(@Px int dotRadius, @Px int dotPadding, boolean retreatsRight) {
+        return this.dotRadius == dotRadius
+                && this.dotPadding == dotPadding
+                && this.retreatsRight == retreatsRight;
+    }
+
+    /**
+     * Look up a table value, interpolating linearly between the two nearest samples.
+     *
+     * @param table One of the tables of this timeline.
+     * @param position The position in the page change, from 0 to 1.
+     * @return The value at the position.
+     */
+    static float sample(@NonNull float[] table, float position) {
+        if (position <= 0) return table[0];
+        if (position >= 1) return table[SAMPLE_COUNT];
+
+        final float index = position * SAMPLE_COUNT;
+        final int lower = (int) index;
+        final float start = table[lower];
+        return start + (table[lower + 1] - start) * (index - lower);
+    }
+
+    /**
+     * Look up a visibility table, which holds 1 where a view is visible and 0 otherwise.
+     * Visibility is not interpolated; it changes on the first sample where it differs.
+     *
+     * @param table A visibility table of this timeline.
+     * @param position The position in the page change, from 0 to 1.
+     * @return True if the view is visible at the position.
+     */
+    static boolean isVisible(@NonNull float[] table, float position) {
+        final int index = (int) (Math.max(0, Math.min(1, position)) * SAMPLE_COUNT);
+        return table[index] > 0;
+    }
+
+    /**
+     * Get how far a phase has progressed.
+     *
+     * @param time The time since the start of the page change, in milliseconds.
+     * @param phaseStart When the phase starts, in milliseconds.
+     * @param phaseDuration How long the phase lasts, in milliseconds.
+     * @return The linear fraction of the phase, clamped to [0, 1].
+     */
+    static float phaseFraction(float time, long phaseStart, long phaseDuration) {
+        if (time <= phaseStart) return 0;
+        if (time >= phaseStart + phaseDuration) return 1;
+        return (time - phaseStart) / phaseDuration;
+    }
+
+    /**
+     * Ease a linear fraction the same way as the platform's default animator interpolator,
+     * starting and ending slowly.
+     *
+     * @param fraction A linear fraction in [0, 1].
+     * @return The eased fraction.
+     */
+    static float ease(float fraction) {
+        return (float) (Math.cos((fraction + 1) * Math.PI) / 2) + 0.5f;
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2016 Ronald Martin <hello@itsronald.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Last modified 10/12/16 11:22 PM.
+ */
+
+package com.itsronald.widget;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+
+/**
+ * Decides what to draw for a strip of dots and the selection moving across it.
+ *
+ * Each pixel of the strip is painted at most once where possible: dots that are completely
+ * covered by the selection path or the selected dot are not drawn at all, as long as whatever
+ * covers them is opaque. Only plain arithmetic is involved, so it can be tested on the JVM.
+ */
+final class StripPainter {
+
+    @ColorInt
+    private static final int OPAQUE = 0xff000000;
+
+    private float firstDotScale = 1;
+    private float lastDotScale = 1;
+    private boolean drawsUnselectedDots = true;
+    @ColorInt
+    private int unselectedColor = OPAQUE;
+    @ColorInt
+    private int selectedColor = OPAQUE;
+
+    private boolean hasSelection;
+    private float selectionFromX;
+    private float selectionToX;
+    private float selectionFraction;
+    private boolean drawsSelectedDot;
+
+    /**
+     * @param firstDotScale The scale of the first dot.
+     * @param lastDotScale The scale of the last dot.
+     */
+    void setDotScales(float firstDotScale, float lastDotScale) {
+        this.firstDotScale = firstDotScale;
+        this.lastDotScale = lastDotScale;
+    }
+
+    /**
+     * @param unselectedColor The color of the unselected dots and the selection path.
+     * @param selectedColor The color of the selected dot.
+     */
+    void setColors(@ColorInt int unselectedColor, @ColorInt int selectedColor) {
+        this.unselectedColor = unselectedColor;
+        this.selectedColor = selectedColor;
+    }
+
+    /**
+     * @param drawsUnselectedDots False if the dots are drawn elsewhere, such as by child views.
+     */
+    void setDrawsUnselectedDots(boolean drawsUnselectedDots) {
+        this.drawsUnselectedDots = drawsUnselectedDots;
+    }
+
+    /**
+     * Set where the selection is.
+     *
+     * @param fromX The horizontal center of the dot the selection is leaving.
+     * @param toX The horizontal center of the dot the selection is moving to.
+     * @param fraction How far the selection has moved, from 0 to 1.
+     * @param drawsSelectedDot False if the selected dot is drawn elsewhere.
+     */
+    void setSelection(float fromX, float toX, float fraction, boolean drawsSelectedDot) {
+        hasSelection = true;
+        selectionFromX = fromX;
+        selectionToX = toX;
+        selectionFraction = fraction;
+        this.drawsSelectedDot = drawsSelectedDot;
+    }
+
+    void clearSelection() {
+        hasSelection = false;
+    }
+
+    /**
+     * Draw the strip.
+     *
+     * @param geometry Where the dots are.
+     * @param renderer Receives the draw calls.
+     */
+    void paint(@NonNull DotGeometry geometry, @NonNull StripRenderer renderer) {
+        final int dotCount = geometry.getDotCount();
+        if (dotCount == 0) return;
+
+        final float radius = geometry.getDotRadius();
+        final float centerY = geometry.getCenterY();
+        final float fromX = selectionFromX;
+        final float toX = selectionToX;
+        final float fraction = selectionFraction;
+
+        final boolean hasPath = hasSelection && fraction > 0 && fraction < 1;
+        float pathLeft = 0;
+        float pathRight = 0;
+        if (hasPath) {
+            // The leading edge of the path reaches the new dot halfway through the transition,
+            // after which the trailing edge retreats toward it.
+            final float leadingX = fromX + (toX - fromX) * Math.min(1, 2 * fraction);
+            final float trailingX = fromX + (toX - fromX) * Math.max(0, 2 * fraction - 1);
+            pathLeft = Math.min(leadingX, trailingX) - radius;
+            pathRight = Math.max(leadingX, trailingX) + radius;
+        }
+        final boolean hasSelectedDot = hasSelection && drawsSelectedDot;
+        final float selectedX = fromX + (toX - fromX) * fraction;
+
+        if (drawsUnselectedDots) {
+            for (int i = 0; i < dotCount; ++i) {
+                final float centerX = geometry.getCenterX(i);
+                final float scale = i == 0 ? firstDotScale
+                        : i == dotCount - 1 ? lastDotScale
+                        : 1;
+                final float dotRadius = radius * scale;
+
+                if (hasSelectedDot && isDotHidden(centerX, centerY, dotRadius,
+                        selectedX, centerY, radius, selectedColor)) {
+                    continue;
+                }
+                // The path's rounded ends have the same radius as the dots.
+                if (hasPath
+                        && isOpaque(unselectedColor)
+                        && centerX - dotRadius >= pathLeft
+                        && centerX + dotRadius <= pathRight) {
+                    continue;
+                }
+                renderer.drawUnselectedDot(centerX, centerY, dotRadius);
+            }
+        }
+
+        if (hasPath) {
+            final float top = geometry.getTop();
+            renderer.drawSelectionPath(pathLeft, top, pathRight, top + 2 * radius, radius);
+        }
+        if (hasSelectedDot) {
+            renderer.drawSelectedDot(selectedX, centerY, radius);
+        }
+    }
+
+    /**
+     * Check whether a dot is completely hidden under another dot drawn over it.
+     *
+     * @param centerX The horizontal center of the dot.
+     * @param centerY The vertical center of the dot.
+     * @param radius The radius of the dot.
+     * @param coverCenterX The horizontal center of the dot drawn over it.
+     * @param coverCenterY The vertical center of the dot drawn over it.
+     * @param coverRadius The radius of the dot drawn over it.
+     * @param coverColor The color of the dot drawn over it.
+     * @return True if drawing the dot would not change any pixel.
+     */
+    static boolean isDotHidden(float centerX,
+                               float centerY,
+                               float radius,
+                               float coverCenterX,
+                               float coverCenterY,
+                               float coverRadius,
+                               @ColorInt int coverColor) {
+        // A translucent dot lets the dot under it show through.
+        if (!isOpaque(coverColor)) return false;
+
+        // One circle contains another if their centers are no further apart than the
+        // difference of their radii.
+        final float reach = coverRadius - radius;
+        if (reach < 0) return false;
+        final float dx = centerX - coverCenterX;
+        final float dy = centerY - coverCenterY;
+        return dx * dx + dy * dy <= reach * reach;
+    }
+
+    private static boolean isOpaque(@ColorInt int color) {
+        return color >>> 24 == 0xff;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2016 Ronald Martin <hello@itsronald.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Last modified 10/12/16 11:22 PM.
+ */
+
+package com.itsronald.widget;
+
+/**
+ * Receives the draw calls for a strip of dots from a {@link StripPainter}.
+ *
+ * Coordinates are in the indicator's coordinate space. Android types are kept out of this
+ * interface, so that what is drawn on each frame can be checked in JVM tests.
+ */
+interface StripRenderer {
+
+    /**
+     * Draw the dot of a page that is not selected.
+     */
+    void drawUnselectedDot(float centerX, float centerY, float radius);
+
+    /**
+     * Draw the rounded path that connects two dots while the selection moves between them.
+     */
+    void drawSelectionPath(float left, float top, float right, float bottom, float radius);
+
+    /**
+     * Draw the dot of the selected page, over everything else.
+     */
+    void drawSelectedDot(float centerX, float centerY, float radius);
+}
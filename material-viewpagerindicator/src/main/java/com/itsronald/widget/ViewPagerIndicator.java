@@ -20,16 +20,23 @@ package com.itsronald.widget;
 
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
-import android.animation.AnimatorSet;
+import android.animation.ValueAnimator;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.database.DataSetObserver;
-import android.graphics.Rect;
+import android.graphics.Canvas;
+import android.graphics.Picture;
+import android.graphics.RectF;
 import android.os.Build;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.PowerManager;
+import android.provider.Settings;
 import androidx.annotation.ColorInt;
 import androidx.annotation.Dimension;
 import androidx.annotation.IdRes;
+import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.Px;
@@ -39,11 +46,15 @@ import androidx.viewpager.widget.ViewPager;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.view.Gravity;
+import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewParent;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -61,7 +72,46 @@ public class ViewPagerIndicator extends ViewGroup {
     @NonNull
     private static final String TAG = "ViewPagerIndicator";
     
-    private static final long DOT_SLIDE_ANIM_DURATION = 150;    // 150 ms.
+    private static final long CANVAS_PAGE_CHANGE_ANIM_DURATION =
+            2 * PageChangeTimeline.SLIDE_DURATION;
+
+    //region Render modes
+
+    @Retention(RetentionPolicy.SOURCE)
+    @IntDef({RENDER_MODE_VIEWS, RENDER_MODE_CANVAS})
+    public @interface RenderMode {}
+
+    /**
+     * Render mode in which every indicator dot is a child view of the indicator.
+     * This is the default render mode.
+     */
+    public static final int RENDER_MODE_VIEWS = 0;
+    /**
+     * Render mode in which the indicator has no child views and draws every dot itself.
+     * Measure and layout cost does not grow with the number of pages.
+     */
+    public static final int RENDER_MODE_CANVAS = 1;
+
+    //endregion
+
+    //region Scroll modes
+
+    @Retention(RetentionPolicy.SOURCE)
+    @IntDef({SCROLL_MODE_ANIMATE, SCROLL_MODE_CONTINUOUS})
+    public @interface ScrollMode {}
+
+    /**
+     * Scroll mode in which the selection animates to the new page once a page is selected.
+     * This is the default scroll mode.
+     */
+    public static final int SCROLL_MODE_ANIMATE = 0;
+    /**
+     * Scroll mode in which the selection follows the ViewPager's scroll position frame by frame,
+     * without running any animators.
+     */
+    public static final int SCROLL_MODE_CONTINUOUS = 1;
+
+    //endregion
 
     //region ViewPager
 
@@ -77,15 +127,77 @@ public class ViewPagerIndicator extends ViewGroup {
 
     //endregion
 
+    //region Event pipeline
+
+    /*
+     * ViewPager and adapter callbacks are queued and applied together once per frame, so that a
+     * burst of callbacks only updates the indicator for the final state.
+     */
+
+    private static final int EVENT_PAGE_SELECTED = 1;
+    private static final int EVENT_DATA_SET_CHANGED = 1 << 1;
+    private static final int EVENT_ADAPTER_CHANGED = 1 << 2;
+
+    @NonNull
+    private final Runnable applyPendingEventsRunnable = new Runnable() {
+        @Override
+        public void run() {
+            applyPendingEvents();
+        }
+    };
+    /** Bit flags of the events waiting for the next frame. */
+    private int pendingEvents;
+    /** The most recently selected page, applied with the next frame. */
+    private int pendingSelectedPage = -1;
+    /** The number of events merged into an already pending frame update. */
+    private int coalescedEventCount;
+    /** The number of frame updates that applied pending events. */
+    private int appliedEventBatchCount;
+
+    //endregion
+
     //region Indicator Dots
     @Dimension
     static final int DEFAULT_DOT_PADDING_DIP = 9;
+    /** The maximum number of idle path views kept attached for reuse. */
+    private static final int MAX_IDLE_DOT_PATHS = 2;
+    /** Scale of the dots at the edges of the window when more pages lie beyond them. */
+    private static final float EDGE_DOT_SCALE = 0.5f;
+
+    /** The number of values that the recorded idle strip depends on. */
+    private static final int STATIC_STRIP_KEY_SIZE = 17;
 
     @NonNull
     private final List<IndicatorDotView> indicatorDots = new ArrayList<>();
+    /**
+     * Page change animations, each with a hidden path view, that page changes can borrow.
+     * The number of path views depends on the number of concurrent page change animations,
+     * not on the page count.
+     */
+    @NonNull
+    private final List<PageChangeAnimation> idlePageChangeAnimations = new ArrayList<>();
+    /** Page change animations that are currently running. */
     @NonNull
-    private final List<IndicatorDotPathView> dotPaths = new ArrayList<>();
+    private final List<PageChangeAnimation> activePageChangeAnimations = new ArrayList<>();
+    /** The last page change animation started. A new page change cancels it if still running. */
+    @Nullable
+    private IndicatorFrameScheduler.Animation runningPageChange;
     private IndicatorDotView selectedDot;   // @NonNull, but initialized in init().
+    /**
+     * Shared by every unselected dot and path view, and used to draw them in canvas mode.
+     * Updated in init().
+     */
+    @NonNull
+    private final DotStyle unselectedDotStyle =
+            new DotStyle(IndicatorDotView.DEFAULT_UNSELECTED_DOT_COLOR, 0);
+    /** Used by the selected dot, and to draw it in canvas mode. Updated in init(). */
+    @NonNull
+    private final DotStyle selectedDotStyle =
+            new DotStyle(IndicatorDotView.DEFAULT_SELECTED_DOT_COLOR, 0);
+    /** Layout params shared by every child view. Children are positioned manually. */
+    @NonNull
+    private final LayoutParams childLayoutParams =
+            new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
     @Px
     private int dotPadding;
     @Px
@@ -94,6 +206,133 @@ public class ViewPagerIndicator extends ViewGroup {
     private int unselectedDotColor;
     @ColorInt
     private int selectedDotColor;
+    /** The number of dots currently displayed by the indicator. */
+    private int dotCount;
+    /** The number of pages represented by the indicator. */
+    private int pageCount;
+    /**
+     * The number of distinct pages in a looping adapter, or 0 to use the adapter's count.
+     * Adapter positions are mapped onto indicator pages modulo this count.
+     */
+    private int realPageCount;
+    /** The maximum number of dots to display at once, or 0 to display one dot per page. */
+    private int maxVisibleDots;
+    /** The page represented by the first dot when only a window of the pages is displayed. */
+    private int windowStart;
+
+    //endregion
+
+    //region Canvas rendering
+
+    @RenderMode
+    private int renderMode = RENDER_MODE_VIEWS;
+    /** Where every displayed dot is, shared by layout, drawing and the animators. */
+    @NonNull
+    private final DotGeometry dotGeometry = new DotGeometry();
+    @NonNull
+    private final RectF pathBounds = new RectF();
+    /** Decides what to draw for the strip, skipping dots that would be painted over. */
+    @NonNull
+    private final StripPainter stripPainter = new StripPainter();
+    @NonNull
+    private final CanvasStripRenderer canvasStripRenderer = new CanvasStripRenderer();
+    /** The unselected dot that the selected dot currently covers, skipped when drawing. */
+    @Nullable
+    private View dotHiddenBySelection;
+    private boolean isTransitioning;
+    private float transitionFromX;
+    private float transitionToX;
+    private float transitionFraction = 1;
+    /** The horizontal center from which the next canvas page change animation starts. */
+    private float pendingTransitionFromX;
+    /** The horizontal center at which the next canvas page change animation ends. */
+    private float pendingTransitionToX;
+    /**
+     * Where the selected dot was drawn when the last canvas page change was interrupted, or NaN
+     * if the next page change should start from the last page's dot.
+     */
+    private float interruptedSelectedDotX = Float.NaN;
+    /** Cached by {@link #canvasPageChange(int, int)} and re-targeted on every use. */
+    @Nullable
+    private CanvasPageChange canvasPageChange;
+
+    //endregion
+
+    //region Continuous scrolling
+
+    @ScrollMode
+    private int scrollMode = SCROLL_MODE_ANIMATE;
+    /** The indicator page of the left page in the last scroll callback, or -1 if unknown. */
+    private int scrollPage = -1;
+    private float scrollOffset;
+    /*
+     * The selection path for the last scroll position, drawn by onDraw(). Only primitives are
+     * updated while scrolling, so following the ViewPager does not allocate.
+     */
+    private boolean hasScrollPosition;
+    private float scrollFromX;
+    private float scrollToX;
+    private float scrollFraction;
+
+    //endregion
+
+    //region Instant page changes
+
+    /** Whether the app asked for page changes to be applied without animation. */
+    private boolean instantPageChanges;
+
+    //endregion
+
+    //region Drawing caches
+
+    /** Whether dots are copied from the process-wide {@link DotSpriteCache}. */
+    private boolean dotSpriteCacheEnabled;
+    /** Whether the idle indicator is drawn from a recording. */
+    private boolean staticStripCacheEnabled;
+    /** The idle indicator, recorded when first drawn in its current state. */
+    @Nullable
+    private Picture staticStrip;
+    /** The state in which {@link #staticStrip} was recorded. */
+    @NonNull
+    private final int[] staticStripKey = new int[STATIC_STRIP_KEY_SIZE];
+    /** Reused to compare the current state against {@link #staticStripKey}. */
+    @NonNull
+    private final int[] staticStripCurrentKey = new int[STATIC_STRIP_KEY_SIZE];
+    /** The reveal animations of inserted dots that are still running. */
+    @NonNull
+    private final List<Animator> runningReveals = new ArrayList<>();
+    /** Draws the indicator live while inserted dots are revealed. */
+    @NonNull
+    private final Animator.AnimatorListener revealListener = new AnimatorListenerAdapter() {
+        @Override
+        public void onAnimationEnd(Animator animation) {
+            animation.removeListener(this);
+            runningReveals.remove(animation);
+            invalidate();
+        }
+    };
+    /**
+     * Whether the system has animations turned off or battery saver on. Checked when the
+     * indicator is attached and whenever its window becomes visible.
+     */
+    private boolean systemPrefersInstantPageChanges;
+
+    //endregion
+
+    //region Pre-warming
+
+    /** Whether to build and draw a page change animation ahead of the first page change. */
+    private boolean prewarmAnimations;
+    private boolean isPrewarmScheduled;
+    @NonNull
+    private final MessageQueue.IdleHandler prewarmIdleHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            isPrewarmScheduled = false;
+            prewarmPageChangeAnimation();
+            return false;
+        }
+    };
 
     //endregion
 
@@ -164,15 +403,53 @@ public class ViewPagerIndicator extends ViewGroup {
 
         viewPagerId = attributes.getResourceId(R.styleable.ViewPagerIndicator_viewPagerId, -1);
 
+        maxVisibleDots = Math.max(0,
+                attributes.getInt(R.styleable.ViewPagerIndicator_maxVisibleDots, maxVisibleDots));
+
+        //noinspection WrongConstant
+        renderMode = attributes.getInt(R.styleable.ViewPagerIndicator_renderMode, renderMode);
+        //noinspection WrongConstant
+        scrollMode = attributes.getInt(R.styleable.ViewPagerIndicator_scrollMode, scrollMode);
+        prewarmAnimations = attributes
+                .getBoolean(R.styleable.ViewPagerIndicator_prewarmAnimations, prewarmAnimations);
+        instantPageChanges = attributes
+                .getBoolean(R.styleable.ViewPagerIndicator_instantPageChanges, instantPageChanges);
+        final boolean dotSpriteCacheEnabled = attributes.getBoolean(
+                R.styleable.ViewPagerIndicator_dotSpriteCacheEnabled, false);
+        staticStripCacheEnabled = attributes.getBoolean(
+                R.styleable.ViewPagerIndicator_staticStripCacheEnabled, staticStripCacheEnabled);
+
         attributes.recycle();
 
+        unselectedDotStyle.setColor(unselectedDotColor);
+        unselectedDotStyle.setRadius(dotRadius);
+        selectedDotStyle.setColor(selectedDotColor);
+        selectedDotStyle.setRadius(dotRadius);
+
+        setDotSpriteCacheEnabled(dotSpriteCacheEnabled);
+
         selectedDot = new IndicatorDotView(context);
-        selectedDot.setColor(selectedDotColor);
-        selectedDot.setRadius(dotRadius);
+        selectedDot.setStyle(selectedDotStyle);
+        updateWillNotDraw();
+        setChildrenDrawingOrderEnabled(true);
     }
 
     //endregion
 
+    /**
+     * Draw the selected dot after every other child, so that it stays on top of the dots and
+     * path views without reordering the children.
+     */
+    @Override
+    protected int getChildDrawingOrder(int childCount, int drawingPosition) {
+        // The selected dot always directly follows the unselected dots.
+        final int selectedDotIndex = indicatorDots.size();
+        if (selectedDotIndex >= childCount || drawingPosition < selectedDotIndex) {
+            return drawingPosition;
+        }
+        return drawingPosition == childCount - 1 ? selectedDotIndex : drawingPosition + 1;
+    }
+
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
@@ -184,18 +461,22 @@ public class ViewPagerIndicator extends ViewGroup {
         final int childWidthSpec = getChildMeasureSpec(widthMeasureSpec,
                 widthPadding, LayoutParams.WRAP_CONTENT);
 
-        // Measure subviews.
-        selectedDot.measure(childWidthSpec, childHeightSpec);
-        for (IndicatorDotView indicatorDot : indicatorDots) {
-            indicatorDot.measure(childWidthSpec, childHeightSpec);
-        }
-        for (IndicatorDotPathView dotPath : dotPaths) {
-            dotPath.measure(childWidthSpec, childHeightSpec);
+        /*
+         * Every dot has the same size, which only depends on dotRadius, and children are
+         * positioned manually. So at most the selected dot is measured, as a prototype for the
+         * others, and not even that when the width is exact. Path views are measured when they
+         * are borrowed for a page change.
+         */
+        final int widthMode = MeasureSpec.getMode(widthMeasureSpec);
+        final boolean measuresPrototype = renderMode == RENDER_MODE_VIEWS
+                && widthMode != MeasureSpec.EXACTLY;
+        if (measuresPrototype) {
+            selectedDot.measure(childWidthSpec, childHeightSpec);
         }
+        final int dotDiameter = measuresPrototype ? selectedDot.getMeasuredWidth() : 2 * dotRadius;
 
         // Calculate measurement for this view.
         final int width;
-        final int widthMode = MeasureSpec.getMode(widthMeasureSpec);
         if (widthMode == MeasureSpec.EXACTLY) {
             /*
              * Due to the implementation of onMeasure() in ViewPager, this case will always be
@@ -205,8 +486,7 @@ public class ViewPagerIndicator extends ViewGroup {
              */
             width = MeasureSpec.getSize(widthMeasureSpec);
         } else {
-            final int dotCount = indicatorDots.size();
-            final int totalDotWidth = selectedDot.getMeasuredWidth() * dotCount;
+            final int totalDotWidth = dotDiameter * dotCount;
             final int totalDotPadding = dotPadding * (dotCount - 1);
             final int minWidth = ViewCompat.getMinimumWidth(this);
             width = Math.max(minWidth, totalDotWidth + totalDotPadding + widthPadding);
@@ -217,12 +497,14 @@ public class ViewPagerIndicator extends ViewGroup {
         if (heightMode == MeasureSpec.EXACTLY) {
             height = MeasureSpec.getSize(heightMeasureSpec);
         } else {
-            final int indicatorHeight = selectedDot.getMeasuredHeight();
+            final int indicatorHeight =
+                    measuresPrototype ? selectedDot.getMeasuredHeight() : dotDiameter;
             final int minHeight = ViewCompat.getMinimumHeight(this);
             height = Math.max(minHeight, indicatorHeight + heightPadding);
         }
 
-        final int childState = ViewCompat.getMeasuredHeightAndState(selectedDot);
+        final int childState =
+                measuresPrototype ? ViewCompat.getMeasuredHeightAndState(selectedDot) : 0;
         final int measuredHeight = ViewCompat.resolveSizeAndState(height, heightMeasureSpec,
                 childState);
         setMeasuredDimension(width, measuredHeight);
@@ -237,12 +519,56 @@ public class ViewPagerIndicator extends ViewGroup {
 
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        if (isLayoutCurrent()) return;
         refresh();
     }
 
+    /**
+     * Check whether the indicator is already laid out for its current geometry key: this view's
+     * size and vertical padding, gravity, dot radius and padding, the number of dots and the
+     * current page. Layout passes that do not change any of these, such as those triggered by
+     * siblings or a collapsing toolbar, can then skip all work on the dots.
+     *
+     * @return True if refreshing the indicator would not change anything.
+     */
+    private boolean isLayoutCurrent() {
+        if (viewPager == null) return false;
+        if (renderMode == RENDER_MODE_VIEWS && dotCount > 0 && selectedDotNeedsLayout) return false;
+
+        final PagerAdapter adapter = viewPager.getAdapter();
+        if (!isShowingAdapterPageCount(adapter)) return false;
+
+        // A queued page selection is applied with the next frame rather than by layout.
+        final boolean hasPendingSelection = (pendingEvents & EVENT_PAGE_SELECTED) != 0;
+        if (!hasPendingSelection
+                && toIndicatorPage(viewPager.getCurrentItem()) != lastKnownCurrentPage) {
+            return false;
+        }
+
+        final int expectedDotCount =
+                maxVisibleDots > 0 ? Math.min(pageCount, maxVisibleDots) : pageCount;
+        // Dots are cleared without touching the geometry, such as when the render mode changes.
+        if (dotCount != expectedDotCount) return false;
+        if (!dotGeometry.matches(getWidth(), getHeight(), getPaddingTop(), getPaddingBottom(),
+                gravity, dotRadius, dotPadding, expectedDotCount)) {
+            return false;
+        }
+
+        // Children that requested a layout must still receive one.
+        for (int i = 0, childCount = getChildCount(); i < childCount; ++i) {
+            if (getChildAt(i).isLayoutRequested()) return false;
+        }
+        return true;
+    }
+
     private void refresh() {
         if (viewPager != null) {
-            updateIndicators(viewPager.getCurrentItem(), viewPager.getAdapter());
+            // A queued page selection should still animate from the last applied page.
+            final boolean hasPendingSelection =
+                    (pendingEvents & EVENT_PAGE_SELECTED) != 0 && lastKnownCurrentPage >= 0;
+            final int currentPage =
+                    hasPendingSelection ? lastKnownCurrentPage : viewPager.getCurrentItem();
+            updateIndicators(currentPage, viewPager.getAdapter());
 
             final float offset = lastKnownPositionOffset >= 0 ? lastKnownPositionOffset : 0;
             updateIndicatorPositions(lastKnownCurrentPage, offset, true);
@@ -274,6 +600,12 @@ public class ViewPagerIndicator extends ViewGroup {
 
         final PagerAdapter lastAdapter = pagerAdapterRef != null ? pagerAdapterRef.get() : null;
         updateAdapter(lastAdapter, adapter);
+
+        updateSystemMotionPreference();
+
+        if (prewarmAnimations) {
+            schedulePrewarm();
+        }
     }
 
     @Override
@@ -281,6 +613,13 @@ public class ViewPagerIndicator extends ViewGroup {
         // See:
         // https://android.googlesource.com/platform/frameworks/support/+/nougat-release/v4/java/android/support/v4/view/PagerTitleStrip.java#263
         super.onDetachedFromWindow();
+        removeCallbacks(applyPendingEventsRunnable);
+        pendingEvents = 0;
+        // Running animators would keep this view reachable and producing frames until they end.
+        endRunningAnimations();
+        cancelPrewarm();
+        // Recorded again when next drawn.
+        staticStrip = null;
         if (viewPager != null) {
             updateAdapter(viewPager.getAdapter(), null);
             viewPager.removeOnPageChangeListener(pageListener);
@@ -289,6 +628,34 @@ public class ViewPagerIndicator extends ViewGroup {
         }
     }
 
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        if (!isVisible) {
+            endRunningAnimations();
+        }
+    }
+
+    @Override
+    protected void onVisibilityChanged(@NonNull View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        // Newer platforms report this through onVisibilityAggregated().
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.N && visibility != VISIBLE) {
+            endRunningAnimations();
+        }
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        if (visibility != VISIBLE) {
+            endRunningAnimations();
+        } else {
+            // The user may have changed system settings while the window was hidden.
+            updateSystemMotionPreference();
+        }
+    }
+
     /**
      * Update the ViewPager adapter being observed by the indicator. The
      * <p>
@@ -300,6 +667,18 @@ public class ViewPagerIndicator extends ViewGroup {
      */
     private void updateAdapter(@Nullable PagerAdapter oldAdapter,
                                @Nullable PagerAdapter newAdapter) {
+        observeAdapter(oldAdapter, newAdapter);
+        resetIndicators(newAdapter);
+    }
+
+    /**
+     * Move the indicator's data set observer from one adapter to another.
+     *
+     * @param oldAdapter The previous adapter being tracked by the indicator.
+     * @param newAdapter The adapter that should be tracked by the indicator.
+     */
+    private void observeAdapter(@Nullable PagerAdapter oldAdapter,
+                                @Nullable PagerAdapter newAdapter) {
         if (oldAdapter != null) {
             oldAdapter.unregisterDataSetObserver(pageListener);
             pagerAdapterRef = null;
@@ -308,19 +687,190 @@ public class ViewPagerIndicator extends ViewGroup {
             newAdapter.registerDataSetObserver(pageListener);
             pagerAdapterRef = new WeakReference<>(newAdapter);
         }
+    }
+
+    /**
+     * Rebuild the indicator's state from scratch for an adapter.
+     *
+     * @param adapter The adapter being tracked by the indicator.
+     */
+    private void resetIndicators(@Nullable PagerAdapter adapter) {
         if (viewPager != null) {
             lastKnownCurrentPage = -1;
             lastKnownPositionOffset = -1;
-            updateIndicators(viewPager.getCurrentItem(), newAdapter);
+            scrollPage = -1;
+            updateIndicators(viewPager.getCurrentItem(), adapter);
             requestLayout();
         }
     }
 
+    /**
+     * Queue an event to be applied with the next animation frame.
+     *
+     * @param event One of the EVENT_* flags.
+     */
+    private void postEvent(int event) {
+        if (pendingEvents == 0) {
+            ViewCompat.postOnAnimation(this, applyPendingEventsRunnable);
+        } else {
+            ++coalescedEventCount;
+        }
+        pendingEvents |= event;
+    }
+
+    /**
+     * Apply every event queued since the last frame, using only the final state.
+     */
+    private void applyPendingEvents() {
+        final int events = pendingEvents;
+        pendingEvents = 0;
+        if (events == 0 || viewPager == null) return;
+
+        ++appliedEventBatchCount;
+        final PagerAdapter adapter = viewPager.getAdapter();
+        if ((events & EVENT_ADAPTER_CHANGED) != 0) {
+            resetIndicators(adapter);
+        } else if ((events & EVENT_PAGE_SELECTED) != 0
+                && ((events & EVENT_DATA_SET_CHANGED) == 0 || isShowingAdapterPageCount(adapter))) {
+            selectPage(pendingSelectedPage);
+        } else if (!isShowingAdapterState(adapter)) {
+            // Dots are identical, so only the page count and current page matter.
+            refresh();
+        }
+    }
+
+    /**
+     * Move the selection to a new page, animating the change if possible.
+     *
+     * @param position The index of the newly selected indicator page.
+     */
+    private void selectPage(int position) {
+        // Capture where an interrupted page change left the selection before the window moves.
+        cancelRunningPageChange();
+        final boolean windowMoved = updateWindow(position);
+        final IndicatorFrameScheduler.Animation pageChange = shouldAnimatePageChanges()
+                ? pageChange(lastKnownCurrentPage, position)
+                : null;
+        if (pageListener.scrollState == ViewPager.SCROLL_STATE_IDLE
+                && viewPager != null) {
+            // Only update the text here if we're not dragging or settling.
+            refresh();
+        } else if (windowMoved) {
+            applyWindow();
+        }
+        //update lastKnownCurrentPage here
+        lastKnownCurrentPage = position;
+        if (pageChange != null) {
+            // Ended at once if too many indicators are already animating.
+            pageChange.start();
+            runningPageChange = pageChange.isStarted() ? pageChange : null;
+        } else {
+            snapSelectedDotToCurrentPage();
+        }
+    }
+
+    /**
+     * Cancel the page change animation that is still running, if any, so that at most one page
+     * change animation runs at a time. The cancelled animation leaves the selected dot where it
+     * was, and the next page change animation starts from there.
+     */
+    private void cancelRunningPageChange() {
+        final IndicatorFrameScheduler.Animation pageChange = runningPageChange;
+        runningPageChange = null;
+        if (pageChange == null || !pageChange.isStarted()) return;
+
+        if (renderMode == RENDER_MODE_CANVAS) {
+            interruptedSelectedDotX = getCanvasSelectedDotX();
+        }
+        pageChange.cancel();
+    }
+
+    /**
+     * Jump the running page change animation, if any, to its end. Used when the indicator is
+     * detached or hidden, where nobody would see the rest of the animation.
+     */
+    private void endRunningPageChange() {
+        final IndicatorFrameScheduler.Animation pageChange = runningPageChange;
+        runningPageChange = null;
+        if (pageChange != null) {
+            pageChange.end();
+        }
+    }
+
+    /**
+     * Jump the running page change and dot reveal animations to their ends.
+     */
+    private void endRunningAnimations() {
+        endRunningPageChange();
+        if (runningReveals.isEmpty()) return;
+
+        // Each reveal removes itself from the list when it ends.
+        final Animator[] reveals = runningReveals.toArray(new Animator[runningReveals.size()]);
+        for (Animator reveal : reveals) {
+            reveal.end();
+        }
+    }
+
+    /**
+     * Check whether a page change should be animated. In continuous mode, the selection already
+     * follows the scroll position, and an indicator that is not on screen should do no work.
+     *
+     * @return True if page changes should be animated.
+     */
+    private boolean shouldAnimatePageChanges() {
+        return scrollMode != SCROLL_MODE_CONTINUOUS
+                && !instantPageChanges
+                && !systemPrefersInstantPageChanges
+                && isVisibleOnScreen();
+    }
+
+    /**
+     * Check whether the system wants animations skipped, either because the animator duration
+     * scale is 0 or because battery saver is on.
+     */
+    private void updateSystemMotionPreference() {
+        systemPrefersInstantPageChanges =
+                !areSystemAnimatorsEnabled() || isPowerSaveMode(getContext());
+    }
+
+    private boolean areSystemAnimatorsEnabled() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            return ValueAnimator.areAnimatorsEnabled();
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return Settings.Global.getFloat(getContext().getContentResolver(),
+                    Settings.Global.ANIMATOR_DURATION_SCALE, 1) != 0;
+        }
+        return true;
+    }
+
+    private static boolean isPowerSaveMode(@NonNull Context context) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) return false;
+
+        final PowerManager powerManager =
+                (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        return powerManager != null && powerManager.isPowerSaveMode();
+    }
+
+    /**
+     * Check whether this view and all of its ancestors are visible in a visible window.
+     *
+     * @return True if the indicator can currently be seen.
+     */
+    private boolean isVisibleOnScreen() {
+        return isShown() && getWindowVisibility() == VISIBLE;
+    }
+
     private void updateIndicators(int currentPage, @Nullable PagerAdapter pagerAdapter) {
         isUpdatingIndicator = true;
 
-        final int pageCount = pagerAdapter == null ? 0 : pagerAdapter.getCount();
-        updateDotCount(pageCount);
+        currentPage = toIndicatorPage(currentPage);
+        if (pagerAdapter == null) {
+            pageCount = 0;
+        } else {
+            pageCount = realPageCount > 0 ? realPageCount : pagerAdapter.getCount();
+        }
+        updateDotCount(maxVisibleDots > 0 ? Math.min(pageCount, maxVisibleDots) : pageCount);
+        updateWindow(currentPage);
 
         lastKnownCurrentPage = currentPage;
 
@@ -331,62 +881,118 @@ public class ViewPagerIndicator extends ViewGroup {
         isUpdatingIndicator = false;
     }
 
+    /**
+     * Reconcile the number of displayed dots with newDotCount. Only the difference is added to
+     * or removed from the end of the strip, and nothing happens if the count is unchanged.
+     *
+     * Unselected dots always occupy the first children of this view, followed by the selected
+     * dot and then any path views. The dots to remove can be taken from the tail without
+     * searching for them, and the selected dot's index is always the number of dots.
+     *
+     * @param newDotCount The number of dots that should be displayed.
+     */
     private void updateDotCount(int newDotCount) {
-        final LayoutParams layoutParams =
-                new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
+        if (newDotCount == dotCount) return;
+
+        dotCount = newDotCount;
+        updateDotGeometry();
+        if (renderMode == RENDER_MODE_CANVAS) return;
 
         // Add unselected dots to layout.
         int dotCount = indicatorDots.size();
-        if (dotCount < newDotCount) {
-
-            while (dotCount++ != newDotCount) {
-                final IndicatorDotView newDot = new IndicatorDotView(getContext());
-                newDot.setRadius(dotRadius);
-                newDot.setColor(unselectedDotColor);
-                indicatorDots.add(newDot);
-                addViewInLayout(newDot, -1, layoutParams, true);
-            }
-        } else if (dotCount > newDotCount) {
-            final List<IndicatorDotView> removedDots =
-                    new ArrayList<>(indicatorDots.subList(newDotCount, dotCount));
-            for (IndicatorDotView removedDot : removedDots) {
-                removeViewInLayout(removedDot);
+        while (dotCount < newDotCount) {
+            final IndicatorDotView newDot = new IndicatorDotView(getContext());
+            newDot.setStyle(unselectedDotStyle);
+            indicatorDots.add(newDot);
+            addViewInLayout(newDot, dotCount++, childLayoutParams, true);
+        }
+        if (dotCount > newDotCount) {
+            removeViewsInLayout(newDotCount, dotCount - newDotCount);
+            while (dotCount > newDotCount) {
+                indicatorDots.remove(--dotCount);
             }
-            indicatorDots.removeAll(removedDots);
         }
 
-        // Make sure there is one fewer path than there are dots.
-        updatePathCount(newDotCount - 1);
-
         // Add selected dot to layout.
-        if (newDotCount > 0) {
-            addViewInLayout(selectedDot, -1, layoutParams, true);
-        } else {
+        final boolean hasSelectedDot = selectedDot.getParent() == this;
+        if (newDotCount > 0 && !hasSelectedDot) {
+            addViewInLayout(selectedDot, newDotCount, childLayoutParams, true);
+        } else if (newDotCount == 0 && hasSelectedDot) {
             removeViewInLayout(selectedDot);
         }
     }
 
-    private void updatePathCount(final int newPathCount) {
-        int pathCount = dotPaths.size();
-        if (pathCount < newPathCount) {
-            final LayoutParams layoutParams =
-                    new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
-            while (pathCount++ != newPathCount) {
-                final IndicatorDotPathView newPath = new IndicatorDotPathView(
-                        getContext(), getUnselectedDotColor(), getDotPadding(), getDotRadius()
-                );
-                newPath.setVisibility(INVISIBLE);
-                dotPaths.add(newPath);
-                addViewInLayout(newPath, -1, layoutParams, true);
-            }
-        } else if (pathCount > newPathCount && newPathCount >= 0) {
-            final List<IndicatorDotPathView> pathsToRemove =
-                    new ArrayList<>(dotPaths.subList(newPathCount, pathCount));
-            for (IndicatorDotPathView dotPath : pathsToRemove) {
-                removeViewInLayout(dotPath);
+    /**
+     * Slide the window of displayed pages so that it contains the current page.
+     * The current page is kept off of the shrunken edge dots unless it is the first or last page.
+     *
+     * @param currentPage The index of the page we are on in the ViewPager.
+     * @return True if the window moved.
+     */
+    private boolean updateWindow(int currentPage) {
+        final int oldWindowStart = windowStart;
+        final int maxWindowStart = Math.max(0, pageCount - dotCount);
+        if (currentPage >= 0 && maxWindowStart > 0) {
+            final int margin = dotCount > 2 ? 1 : 0;
+            if (currentPage - margin < windowStart) {
+                windowStart = currentPage - margin;
+            } else if (currentPage + margin > windowStart + dotCount - 1) {
+                windowStart = currentPage + margin - dotCount + 1;
             }
-            dotPaths.removeAll(pathsToRemove);
         }
+        windowStart = Math.max(0, Math.min(windowStart, maxWindowStart));
+        return windowStart != oldWindowStart;
+    }
+
+    /**
+     * Update the size of each displayed dot after the window of displayed pages moves.
+     */
+    private void applyWindow() {
+        if (renderMode == RENDER_MODE_CANVAS) {
+            invalidate();
+            return;
+        }
+        for (int i = 0, dotCount = indicatorDots.size(); i < dotCount; ++i) {
+            final float scale = getDotScale(i);
+            final IndicatorDotView dotView = indicatorDots.get(i);
+            dotView.setScaleX(scale);
+            dotView.setScaleY(scale);
+        }
+    }
+
+    /**
+     * Get the scale of a displayed dot. Dots at the edges of the window shrink when there are
+     * more pages beyond them.
+     *
+     * @param dotIndex The index of the dot within the window.
+     * @return The scale at which to draw the dot.
+     */
+    private float getDotScale(int dotIndex) {
+        if ((dotIndex == 0 && windowStart > 0)
+                || (dotIndex == dotCount - 1 && windowStart + dotCount < pageCount)) {
+            return EDGE_DOT_SCALE;
+        }
+        return 1;
+    }
+
+    /**
+     * Move the selected dot directly over the current page's dot without animating.
+     */
+    private void snapSelectedDotToCurrentPage() {
+        if (scrollMode == SCROLL_MODE_CONTINUOUS) {
+            applyScrollPosition();
+            return;
+        }
+        if (renderMode == RENDER_MODE_CANVAS) {
+            invalidate();
+            return;
+        }
+        final int currentDot = lastKnownCurrentPage - windowStart;
+        if (currentDot < 0 || currentDot >= dotCount || selectedDotNeedsLayout) return;
+
+        selectedDot.setTranslationX(dotGeometry.getLeft(currentDot) - selectedDot.getLeft());
+        selectedDot.setTranslationY(dotGeometry.getTop() - selectedDot.getTop());
+        updateDotHiddenBySelection();
     }
 
     /**
@@ -406,148 +1012,711 @@ public class ViewPagerIndicator extends ViewGroup {
 
         isUpdatingPositions = true;
 
+        updateDotGeometry();
+
+        if (renderMode == RENDER_MODE_CANVAS) {
+            if (scrollMode == SCROLL_MODE_CONTINUOUS) {
+                applyScrollPosition();
+            }
+            invalidate();
+
+            lastKnownPositionOffset = positionOffset;
+            isUpdatingPositions = false;
+            return;
+        }
+
         final int dotWidth = 2 * dotRadius;
-        final int top = calculateIndicatorDotTop();
+        final int top = dotGeometry.getTop();
         final int bottom = top + dotWidth;
-        int left = calculateIndicatorDotStart();
-        int right = left + dotWidth;
-        for (int i = 0,
-             dotCount = indicatorDots.size(),
-             pathCount = dotPaths.size(); i < dotCount; ++i) {
+        final int currentDotIndex = currentPage - windowStart;
+        for (int i = 0, dotCount = indicatorDots.size(); i < dotCount; ++i) {
+            final int left = dotGeometry.getLeft(i);
+            final int right = left + dotWidth;
             final IndicatorDotView dotView = indicatorDots.get(i);
             dotView.layout(left, top, right, bottom);
 
-            if (i < pathCount)  {
-                final IndicatorDotPathView dotPath = dotPaths.get(i);
-                dotPath.layout(left, top, left + dotPath.getMeasuredWidth(), bottom);
-            }
+            final float scale = getDotScale(i);
+            dotView.setScaleX(scale);
+            dotView.setScaleY(scale);
 
-            if (i == currentPage && selectedDotNeedsLayout) {
+            if (i == currentDotIndex && selectedDotNeedsLayout) {
                 selectedDot.layout(left, top, right, bottom);
                 selectedDotNeedsLayout = false;
             }
-
-            left = right + dotPadding;
-            right = left + dotWidth;
         }
-        selectedDot.bringToFront();
+        if (activePageChangeAnimations.isEmpty()) {
+            // No page change animation is moving the selected dot.
+            snapSelectedDotToCurrentPage();
+        }
 
         lastKnownPositionOffset = positionOffset;
         isUpdatingPositions = false;
     }
 
     /**
-     * Calculate the starting vertical position for the line of indicator dots.
-     * @return The first Y coordinate where the indicator dots start.
-     */
-    @Px
-    private int calculateIndicatorDotTop() {
-        final int top;
-        final int verticalGravity = gravity & Gravity.VERTICAL_GRAVITY_MASK;
-        switch (verticalGravity) {
-            default:
-            case Gravity.CENTER_VERTICAL:
-                top = (getHeight() - getPaddingTop() - getPaddingBottom()) / 2 - getDotRadius();
-                break;
-            case Gravity.TOP:
-                top = getPaddingTop();
-                break;
-            case Gravity.BOTTOM:
-                top = getHeight() - getPaddingBottom() - 2 * getDotRadius();
-                break;
-        }
-        return top;
-    }
-
-    /**
-     * Calculate the starting horizontal position for the line of indicator dots.
-     * Assumes dots are centered horizontally.
+     * Bring the dot positions up to date with this view's size and the dot attributes.
+     * Positions are only recomputed when one of them changed.
      *
-     * @return The first X coordinate where the indicator dots start.
+     * @return True if the positions were recomputed.
      */
-    @Px
-    private int calculateIndicatorDotStart() {
-        /*
-         * Calculate the start position by starting from the center of the view and moving left
-         * for half of the dots.
-         */
-        final int dotCount = indicatorDots.size();
-        final float halfDotCount = dotCount / 2f;
-
-        final int dotWidth = 2 * dotRadius;
-        final float totalDotWidth = dotWidth * halfDotCount;
-        // # dot gaps = (numDots - 1), so # dot gaps / 2 = (numDots - 1) / 2 = halfDotCount - 0.5.
-        final float halfDotPaddingCount = Math.max(halfDotCount - 0.5f, 0);
-        final float totalDotPaddingWidth = dotPadding * halfDotPaddingCount;
-
-        int startPosition = getWidth() / 2;
-        startPosition -= totalDotWidth + totalDotPaddingWidth;
-        return startPosition;
+    private boolean updateDotGeometry() {
+        return dotGeometry.update(getWidth(), getHeight(), getPaddingTop(), getPaddingBottom(),
+                gravity, dotRadius, dotPadding, dotCount);
     }
 
     @Nullable
-    private Animator pageChangeAnimator(final int lastPageIndex, final int newPageIndex) {
-        final IndicatorDotPathView dotPath = getDotPathForPageChange(lastPageIndex, newPageIndex);
-        final IndicatorDotView lastDot = getDotForPage(lastPageIndex);
+    private IndicatorFrameScheduler.Animation pageChange(final int lastPageIndex,
+                                                         final int newPageIndex) {
+        if (renderMode == RENDER_MODE_CANVAS) {
+            return canvasPageChange(lastPageIndex, newPageIndex);
+        }
+
+        final IndicatorDotView lastDot = getDotForPage(lastPageIndex);
+        final IndicatorDotView newDot = getDotForPage(newPageIndex);
 
-        if (dotPath == null || lastDot == null) {
-            final String warning = dotPath == null ? "dotPath is null!" : "lastDot is null!";
+        if (lastDot == null || newDot == null) {
+            final String warning = lastDot == null ? "lastDot is null!" : "newDot is null!";
             Log.w(TAG, warning);
             return null;
+        } else if (lastPageIndex == newPageIndex) {
+            return null;
+        }
+
+        final PageChangeAnimation pageChangeAnimation =
+                acquirePageChangeAnimation(lastPageIndex < newPageIndex ? lastDot : newDot);
+        final int pathDirection = getPathDirectionForPageChange(lastPageIndex, newPageIndex);
+        final float lastDotScale = getDotScale(lastPageIndex - windowStart);
+        return pageChangeAnimation.prepare(lastDot, newPageIndex - windowStart, pathDirection,
+                lastDotScale);
+    }
+
+    /**
+     * Borrow a page change animation from the pool and position its path view over two
+     * adjacent dots.
+     *
+     * @param startDot The leftmost of the two dots that the path should connect.
+     * @return A page change animation whose hidden path view is laid out over startDot and its
+     * right neighbor.
+     */
+    @NonNull
+    private PageChangeAnimation acquirePageChangeAnimation(@NonNull IndicatorDotView startDot) {
+        final PageChangeAnimation pageChangeAnimation;
+        final int idleCount = idlePageChangeAnimations.size();
+        if (idleCount > 0) {
+            pageChangeAnimation = idlePageChangeAnimations.remove(idleCount - 1);
+            final IndicatorDotPathView dotPath = pageChangeAnimation.dotPath;
+            // The path shares unselectedDotStyle, but its size follows the style's radius.
+            if (dotPath.getDotPadding() != dotPadding) {
+                dotPath.setDotPadding(dotPadding);
+            }
+            if (dotPath.getDotRadius() != dotRadius) {
+                dotPath.setDotRadius(dotRadius);
+            }
+        } else {
+            final IndicatorDotPathView dotPath =
+                    new IndicatorDotPathView(getContext(), unselectedDotStyle, dotPadding);
+            dotPath.setVisibility(INVISIBLE);
+            addViewInLayout(dotPath, -1, childLayoutParams, true);
+            pageChangeAnimation = new PageChangeAnimation(dotPath);
+        }
+        activePageChangeAnimations.add(pageChangeAnimation);
+        // The selected dot is about to leave the dot it covers.
+        updateDotHiddenBySelection();
+
+        final IndicatorDotPathView dotPath = pageChangeAnimation.dotPath;
+        final int unspecifiedSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+        dotPath.measure(unspecifiedSpec, unspecifiedSpec);
+        final int left = startDot.getLeft();
+        final int top = startDot.getTop();
+        dotPath.layout(left, top,
+                left + dotPath.getMeasuredWidth(), top + dotPath.getMeasuredHeight());
+        return pageChangeAnimation;
+    }
+
+    /**
+     * Return a page change animation borrowed by
+     * {@link #acquirePageChangeAnimation(IndicatorDotView)} to the pool.
+     *
+     * @param pageChangeAnimation The page change animation that has finished.
+     */
+    private void releasePageChangeAnimation(@NonNull PageChangeAnimation pageChangeAnimation) {
+        // The pool may have been cleared while the animation was running.
+        if (!activePageChangeAnimations.remove(pageChangeAnimation)) return;
+        updateDotHiddenBySelection();
+
+        pageChangeAnimation.dotPath.setVisibility(INVISIBLE);
+        if (idlePageChangeAnimations.size() < MAX_IDLE_DOT_PATHS) {
+            idlePageChangeAnimations.add(pageChangeAnimation);
+        } else {
+            removeViewInLayout(pageChangeAnimation.dotPath);
+        }
+    }
+
+    /**
+     * A pooled path view together with the driver that moves the selection across it.
+     *
+     * The shared {@link IndicatorFrameScheduler} advances it through the baked
+     * {@link PageChangeTimeline} tables, and every view property is written directly on each
+     * frame, so a page change costs a few table lookups per frame and does not create new
+     * animators or listeners.
+     */
+    private final class PageChangeAnimation extends IndicatorFrameScheduler.Animation {
+
+        @NonNull
+        final IndicatorDotPathView dotPath;
+
+        private float slideFromX;
+        private float slideFromY;
+        private float slideToX;
+        private float slideToY;
+
+        /** The dot of the page being left, hidden while the path connects. */
+        @Nullable
+        private IndicatorDotView lastDot;
+        private float lastDotScale = 1;
+        private boolean isRevealingLastDot;
+
+        PageChangeAnimation(@NonNull IndicatorDotPathView dotPath) {
+            // The easing of each phase is baked into the timeline's tables.
+            super(PageChangeTimeline.TOTAL_DURATION);
+            this.dotPath = dotPath;
         }
 
-        final Animator connectPathAnimator = dotPath.connectPathAnimator();
-        connectPathAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-                dotPath.setVisibility(VISIBLE);
+        /**
+         * Re-target this animation for a page change.
+         *
+         * @param lastDot The dot of the page being left.
+         * @param newDotIndex The index of the dot of the page being selected.
+         * @param pathDirection The direction in which the selection moves.
+         * @param lastDotScale The scale at which lastDot should be revealed.
+         * @return This animation.
+         */
+        @NonNull
+        PageChangeAnimation prepare(@NonNull IndicatorDotView lastDot,
+                         int newDotIndex,
+                         @IndicatorDotPathView.PathDirection int pathDirection,
+                         float lastDotScale) {
+            this.lastDot = lastDot;
+            this.lastDotScale = lastDotScale;
+            isRevealingLastDot = false;
+
+            dotPath.preparePageChange(pathDirection);
+
+            // The new dot's position in selectedDot's coordinate space.
+            slideFromX = selectedDot.getTranslationX();
+            slideFromY = selectedDot.getTranslationY();
+            slideToX = dotGeometry.getLeft(newDotIndex) - selectedDot.getLeft();
+            slideToY = dotGeometry.getTop() - selectedDot.getTop();
+            return this;
+        }
+
+        @Override
+        void onFrame(float position) {
+            final PageChangeTimeline timeline = dotPath.getTimeline();
+
+            dotPath.setPageChangePosition(position);
+            if (timeline == null || position < PageChangeTimeline.SLIDE_START_POSITION) return;
+
+            final float slide = PageChangeTimeline.sample(timeline.slideFraction, position);
+            selectedDot.setTranslationX(slideFromX + (slideToX - slideFromX) * slide);
+            selectedDot.setTranslationY(slideFromY + (slideToY - slideFromY) * slide);
+            if (position < PageChangeTimeline.RETREAT_START_POSITION) return;
+
+            // Reveal the last page's dot while the path retreats. Since dots are circular,
+            // scaling them up from their center looks the same as a circular reveal.
+            if (lastDot != null) {
+                if (!isRevealingLastDot) {
+                    isRevealingLastDot = true;
+                    lastDot.setVisibility(VISIBLE);
+                }
+                final float revealScale =
+                        PageChangeTimeline.sample(timeline.revealFraction, position) * lastDotScale;
+                lastDot.setScaleX(revealScale);
+                lastDot.setScaleY(revealScale);
+            }
+        }
+
+        @Override
+        void onStart() {
+            dotPath.setVisibility(VISIBLE);
+            if (lastDot != null) {
                 lastDot.setVisibility(INVISIBLE);
             }
-        });
+        }
+
+        @Override
+        void onCancel() {
+            // The selected dot stays where it is; everything else returns to rest.
+            if (lastDot != null) {
+                lastDot.setVisibility(VISIBLE);
+                lastDot.setScaleX(lastDotScale);
+                lastDot.setScaleY(lastDotScale);
+            }
+            dotPath.reset();
+        }
 
-        final long dotSlideDuration = DOT_SLIDE_ANIM_DURATION;
-        final Animator selectedDotSlideAnimator =
-                selectedDotSlideAnimator(newPageIndex, dotSlideDuration, 0);
+        @Override
+        void onEnd() {
+            lastDot = null;
+            releasePageChangeAnimation(this);
+        }
+    }
 
-        final int pathDirection = getPathDirectionForPageChange(lastPageIndex, newPageIndex);
-        final Animator retreatPathAnimator = dotPath.retreatConnectedPathAnimator(pathDirection);
+    //region Pre-warming
+
+    /**
+     * Pre-warm a page change animation the next time the main thread is idle.
+     */
+    private void schedulePrewarm() {
+        if (isPrewarmScheduled) return;
+
+        final MessageQueue queue = Looper.myQueue();
+        if (queue != null) {
+            queue.addIdleHandler(prewarmIdleHandler);
+            isPrewarmScheduled = true;
+        }
+    }
 
-        final Animator dotRevealAnimator = lastDot.revealAnimator();
-        dotRevealAnimator.addListener(new AnimatorListenerAdapter() {
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                dotPath.setVisibility(INVISIBLE);
+    private void cancelPrewarm() {
+        if (!isPrewarmScheduled) return;
+
+        final MessageQueue queue = Looper.myQueue();
+        if (queue != null) {
+            queue.removeIdleHandler(prewarmIdleHandler);
+        }
+        isPrewarmScheduled = false;
+    }
+
+    /**
+     * Build the path view and driver for a page change, bake its timelines for both directions
+     * and draw the path once into a software bitmap, then return them to the pool. The first
+     * page change then skips allocating and baking. Hardware drawing is not warmed, since it
+     * only happens as part of a real frame.
+     */
+    private void prewarmPageChangeAnimation() {
+        // Nothing to pre-warm if page changes will not be animated.
+        if (viewPager == null
+                || renderMode != RENDER_MODE_VIEWS
+                || !shouldAnimatePageChanges()
+                || dotCount < 2
+                || selectedDotNeedsLayout
+                || !idlePageChangeAnimations.isEmpty()
+                || !activePageChangeAnimations.isEmpty()) {
+            return;
+        }
+
+        final IndicatorDotView startDot = indicatorDots.get(0);
+        final PageChangeAnimation pageChangeAnimation = acquirePageChangeAnimation(startDot);
+        pageChangeAnimation.prepare(startDot, 1, IndicatorDotPathView.PATH_DIRECTION_RIGHT,
+                getDotScale(0));
+        pageChangeAnimation.dotPath.prewarm();
+        // The path view keeps the tables of each direction once looked up.
+        pageChangeAnimation.dotPath.preparePageChange(IndicatorDotPathView.PATH_DIRECTION_LEFT);
+        pageChangeAnimation.lastDot = null;
+        releasePageChangeAnimation(pageChangeAnimation);
+    }
+
+    //endregion
+
+    //region Canvas rendering
+
+    /**
+     * Animation: stretch a path from the last page's dot to the new page's dot while the
+     * selected dot slides between them, then retreat the path into the new page's dot.
+     * Only used in canvas mode.
+     */
+    @Nullable
+    private IndicatorFrameScheduler.Animation canvasPageChange(final int lastPageIndex,
+                                                               final int newPageIndex) {
+        final int lastDotIndex = lastPageIndex - windowStart;
+        final int newDotIndex = newPageIndex - windowStart;
+        final float interruptedX = interruptedSelectedDotX;
+        interruptedSelectedDotX = Float.NaN;
+        if (lastDotIndex < 0 || lastDotIndex >= dotCount
+                || newDotIndex < 0 || newDotIndex >= dotCount
+                || lastDotIndex == newDotIndex) {
+            return null;
+        }
+
+        pendingTransitionFromX = Float.isNaN(interruptedX)
+                ? dotGeometry.getCenterX(lastDotIndex)
+                : interruptedX;
+        pendingTransitionToX = dotGeometry.getCenterX(newDotIndex);
+        if (canvasPageChange == null) {
+            canvasPageChange = new CanvasPageChange();
+        }
+        return canvasPageChange;
+    }
+
+    /**
+     * Advances the canvas page change drawn by {@link #onDraw(Canvas)}.
+     */
+    private final class CanvasPageChange extends IndicatorFrameScheduler.Animation {
+
+        CanvasPageChange() {
+            super(CANVAS_PAGE_CHANGE_ANIM_DURATION);
+        }
+
+        @Override
+        void onStart() {
+            isTransitioning = true;
+            transitionFromX = pendingTransitionFromX;
+            transitionToX = pendingTransitionToX;
+            transitionFraction = 0;
+        }
+
+        @Override
+        void onFrame(float fraction) {
+            transitionFraction = PageChangeTimeline.ease(fraction);
+            // Everything the transition draws stays between the two dots.
+            invalidateSpan(transitionFromX, transitionToX);
+        }
+
+        @Override
+        void onEnd() {
+            isTransitioning = false;
+            transitionFraction = 1;
+            invalidateSpan(transitionFromX, transitionToX);
+        }
+    }
+
+    /**
+     * Get where the selected dot is currently drawn in canvas mode.
+     *
+     * @return The horizontal center of the selected dot, or NaN if no dot is selected.
+     */
+    private float getCanvasSelectedDotX() {
+        final int currentDot = lastKnownCurrentPage - windowStart;
+        if (currentDot < 0 || currentDot >= dotCount) return Float.NaN;
+
+        final float toX = dotGeometry.getCenterX(currentDot);
+        if (!isTransitioning) return toX;
+        return transitionFromX + (toX - transitionFromX) * transitionFraction;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (canDrawStaticStrip(canvas)) {
+            if (!isStaticStripCurrent()) {
+                drawIndicator(beginStaticStrip());
+                endStaticStrip();
             }
-        });
+            canvas.drawPicture(staticStrip);
+        } else {
+            drawIndicator(canvas);
+        }
+    }
 
-        final AnimatorSet animatorSet = new AnimatorSet();
-        animatorSet.play(connectPathAnimator).before(selectedDotSlideAnimator);
-        animatorSet.play(retreatPathAnimator).after(selectedDotSlideAnimator);
-        animatorSet.play(dotRevealAnimator).with(retreatPathAnimator);
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        dotHiddenBySelection = findDotHiddenBySelection();
+        super.dispatchDraw(canvas);
+    }
 
-        return animatorSet;
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        // Drawing a dot that is completely covered would only paint its pixels twice.
+        if (child == dotHiddenBySelection) return false;
+        return super.drawChild(canvas, child, drawingTime);
     }
 
-    @NonNull
-    private Animator selectedDotSlideAnimator(int newPageIndex,
-                                              long animationDuration,
-                                              long startDelay) {
-        final Rect newPageDotRect = new Rect();
-        final IndicatorDotView newPageDot = getDotForPage(newPageIndex);
-        if (newPageDot != null) {
-            newPageDot.getDrawingRect(newPageDotRect);
-            offsetDescendantRectToMyCoords(newPageDot, newPageDotRect);
-            offsetRectIntoDescendantCoords(selectedDot, newPageDotRect);
+    /**
+     * Redraw the indicator if the selected dot now covers a different dot. The covered dot is
+     * chosen while the indicator draws its children, but moving the selected dot alone does not
+     * redraw the indicator.
+     */
+    private void updateDotHiddenBySelection() {
+        if (findDotHiddenBySelection() != dotHiddenBySelection) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Find the unselected dot that is completely covered by the selected dot. In views mode, the
+     * selected dot rests over the current page's dot between page changes. While a page change
+     * runs, no dot is skipped, so the new page's dot is still drawn under the path's end.
+     *
+     * @return The covered dot, or null if the selected dot is moving or covers no dot.
+     */
+    @Nullable
+    private View findDotHiddenBySelection() {
+        if (renderMode != RENDER_MODE_VIEWS
+                || selectedDotNeedsLayout
+                || !activePageChangeAnimations.isEmpty()
+                || selectedDot.getVisibility() != VISIBLE) {
+            return null;
+        }
+        final int currentDot = lastKnownCurrentPage - windowStart;
+        if (currentDot < 0 || currentDot >= indicatorDots.size()) return null;
+
+        // Compare actual positions, since the selected dot may be following a scroll.
+        final IndicatorDotView dot = indicatorDots.get(currentDot);
+        final boolean isCovered = StripPainter.isDotHidden(
+                getDrawnCenterX(dot), getDrawnCenterY(dot), getDrawnRadius(dot, true),
+                getDrawnCenterX(selectedDot), getDrawnCenterY(selectedDot),
+                getDrawnRadius(selectedDot, false), selectedDotColor);
+        return isCovered ? dot : null;
+    }
+
+    /*
+     * Where a dot view is drawn, including its translation and its scale around its center.
+     */
+
+    private static float getDrawnCenterX(@NonNull View dot) {
+        return dot.getLeft() + dot.getTranslationX() + dot.getWidth() / 2f;
+    }
+
+    private static float getDrawnCenterY(@NonNull View dot) {
+        return dot.getTop() + dot.getTranslationY() + dot.getHeight() / 2f;
+    }
+
+    /**
+     * @param dot A dot view.
+     * @param isOuter True for the radius of a circle around the dot, false for one inside it.
+     * @return The radius of the dot as drawn.
+     */
+    private static float getDrawnRadius(@NonNull View dot, boolean isOuter) {
+        final float scaleX = Math.abs(dot.getScaleX());
+        final float scaleY = Math.abs(dot.getScaleY());
+        return isOuter
+                ? Math.max(dot.getWidth(), dot.getHeight()) / 2f * Math.max(scaleX, scaleY)
+                : Math.min(dot.getWidth(), dot.getHeight()) / 2f * Math.min(scaleX, scaleY);
+    }
+
+    /**
+     * Draw the dots in canvas mode, and the selection path in continuous scroll mode.
+     *
+     * @param canvas The canvas on which to draw.
+     */
+    private void drawIndicator(@NonNull Canvas canvas) {
+        if (dotCount == 0) return;
+
+        final boolean isCanvasMode = renderMode == RENDER_MODE_CANVAS;
+        final StripPainter painter = stripPainter;
+        painter.setDrawsUnselectedDots(isCanvasMode);
+        painter.setColors(unselectedDotColor, selectedDotColor);
+        painter.setDotScales(getDotScale(0), getDotScale(dotCount - 1));
+        painter.clearSelection();
+
+        if (scrollMode == SCROLL_MODE_CONTINUOUS) {
+            // In views mode, the selected dot is a child view drawn over the path.
+            if (hasScrollPosition) {
+                painter.setSelection(scrollFromX, scrollToX, scrollFraction, isCanvasMode);
+            }
+        } else if (isCanvasMode) {
+            final int currentDot = lastKnownCurrentPage - windowStart;
+            if (currentDot >= 0 && currentDot < dotCount) {
+                final float toX = dotGeometry.getCenterX(currentDot);
+                if (isTransitioning && transitionFraction < 1) {
+                    painter.setSelection(transitionFromX, toX, transitionFraction, true);
+                } else {
+                    painter.setSelection(toX, toX, 1, true);
+                }
+            }
+        } else {
+            return;
+        }
+
+        canvasStripRenderer.canvas = canvas;
+        painter.paint(dotGeometry, canvasStripRenderer);
+        canvasStripRenderer.canvas = null;
+    }
+
+    /**
+     * Draws a strip of dots onto a canvas with the indicator's dot styles.
+     */
+    private final class CanvasStripRenderer implements StripRenderer {
+
+        /** The canvas to draw on, only set while the strip is being painted. */
+        @Nullable
+        Canvas canvas;
+
+        @Override
+        public void drawUnselectedDot(float centerX, float centerY, float radius) {
+            if (canvas == null) return;
+            unselectedDotStyle.drawDot(canvas, centerX, centerY, radius);
+        }
+
+        @Override
+        public void drawSelectionPath(float left,
+                                      float top,
+                                      float right,
+                                      float bottom,
+                                      float radius) {
+            if (canvas == null) return;
+            pathBounds.set(left, top, right, bottom);
+            canvas.drawRoundRect(pathBounds, radius, radius, unselectedDotStyle.getPaint());
+        }
+
+        @Override
+        public void drawSelectedDot(float centerX, float centerY, float radius) {
+            if (canvas == null) return;
+            selectedDotStyle.drawDot(canvas, centerX, centerY, radius);
+        }
+    }
+
+    /**
+     * Move the selection to the last scroll position reported by the ViewPager. Only used in
+     * continuous scroll mode, where this runs for every scrolled frame, so it must not allocate.
+     */
+    private void applyScrollPosition() {
+        final boolean isScrolling = scrollPage >= 0;
+        final int fromPage = isScrolling ? scrollPage : lastKnownCurrentPage;
+        final int fromDot = fromPage - windowStart;
+        if (fromDot < 0 || fromDot >= dotCount) {
+            hasScrollPosition = false;
+            invalidate();
+            return;
+        }
+
+        // The page to the right is only adjacent if it is displayed and does not loop around.
+        float fraction = isScrolling ? scrollOffset : 0;
+        int toDot = fromDot + 1;
+        if (toDot >= dotCount || fromPage + 1 >= pageCount) {
+            toDot = fromDot;
+            fraction = 0;
+        }
+
+        final float radius = dotRadius;
+        final boolean hadScrollPosition = hasScrollPosition;
+        final float lastFromX = scrollFromX;
+        final float lastToX = scrollToX;
+        scrollFromX = dotGeometry.getCenterX(fromDot);
+        scrollToX = dotGeometry.getCenterX(toDot);
+        scrollFraction = fraction;
+        hasScrollPosition = true;
+
+        if (renderMode == RENDER_MODE_VIEWS && !selectedDotNeedsLayout) {
+            final float selectedLeft = scrollFromX + (scrollToX - scrollFromX) * fraction - radius;
+            selectedDot.setTranslationX(selectedLeft - selectedDot.getLeft());
+            selectedDot.setTranslationY(dotGeometry.getTop() - selectedDot.getTop());
+            updateDotHiddenBySelection();
         }
-        final float toX = newPageDotRect.left;
-        final float toY = newPageDotRect.top;
+        if (hadScrollPosition) {
+            // Erase the last selection path and draw the new one.
+            invalidateSpan(Math.min(Math.min(lastFromX, lastToX), Math.min(scrollFromX, scrollToX)),
+                    Math.max(Math.max(lastFromX, lastToX), Math.max(scrollFromX, scrollToX)));
+        } else {
+            invalidate();
+        }
+    }
+
+    /**
+     * Invalidate only the part of the strip between two dot centers, including both dots.
+     * Selection changes only draw within this span, so the area redrawn in software on each of
+     * their frames does not grow with the number of dots. Hardware rendering redraws the whole
+     * view's display list regardless.
+     *
+     * @param fromX The horizontal center of one dot.
+     * @param toX The horizontal center of the other dot.
+     */
+    @SuppressWarnings("deprecation")  // Dirty rects still limit software redraws.
+    private void invalidateSpan(float fromX, float toX) {
+        if (isHardwareAccelerated() && getLayerType() != LAYER_TYPE_SOFTWARE) {
+            invalidate();
+            return;
+        }
+        final int dotTop = dotGeometry.getTop();
+        final int dotDiameter = 2 * dotRadius;
+        // Anti-aliased edges may reach one pixel past the dots.
+        final int left = (int) Math.floor(Math.min(fromX, toX) - dotRadius) - 1;
+        final int right = (int) Math.ceil(Math.max(fromX, toX) + dotRadius) + 1;
+        invalidate(left, dotTop - 1, right, dotTop + dotDiameter + 1);
+    }
+
+    /**
+     * Only draw when something is drawn outside of child views.
+     */
+    private void updateWillNotDraw() {
+        setWillNotDraw(renderMode != RENDER_MODE_CANVAS && scrollMode != SCROLL_MODE_CONTINUOUS);
+    }
+
+    //endregion
+
+    //region Static strip cache
+
+    /**
+     * Check whether the indicator is idle and can be drawn from {@link #staticStrip}.
+     * Anything that moves is drawn live. Only canvas mode is recorded: in views mode, each dot
+     * already keeps its own display list, and changes to a dot alone would not redraw the
+     * recording.
+     *
+     * @param canvas The canvas on which the indicator is about to be drawn.
+     * @return True if the strip can be replayed on the canvas.
+     */
+    private boolean canDrawStaticStrip(@NonNull Canvas canvas) {
+        return staticStripCacheEnabled
+                && renderMode == RENDER_MODE_CANVAS
+                // Hardware canvases only support pictures from API 23.
+                && (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+                        || !canvas.isHardwareAccelerated())
+                && getWidth() > 0 && getHeight() > 0
+                && !isLayoutRequested()
+                && activePageChangeAnimations.isEmpty()
+                && !isTransitioning
+                && runningReveals.isEmpty()
+                && pageListener.scrollState == ViewPager.SCROLL_STATE_IDLE;
+    }
+
+    /**
+     * Fill a key with everything that the idle strip's drawing depends on.
+     */
+    private void getStaticStripKey(@NonNull int[] key) {
+        key[0] = getWidth();
+        key[1] = getHeight();
+        key[2] = renderMode;
+        key[3] = scrollMode;
+        key[4] = dotCount;
+        key[5] = pageCount;
+        key[6] = windowStart;
+        key[7] = lastKnownCurrentPage;
+        key[8] = dotRadius;
+        key[9] = dotPadding;
+        key[10] = gravity;
+        key[11] = unselectedDotColor;
+        key[12] = selectedDotColor;
+        key[13] = dotSpriteCacheEnabled ? 1 : 0;
+        key[14] = hasScrollPosition ? Float.floatToIntBits(scrollFraction) : 0;
+        // The recording has the dots' positions baked in, which also depend on padding.
+        key[15] = dotGeometry.getTop();
+        key[16] = dotGeometry.getDotCount() > 0 ? dotGeometry.getLeft(0) : 0;
+    }
+
+    /**
+     * Check whether {@link #staticStrip} was recorded in the indicator's current state.
+     *
+     * @return True if the recording can be replayed.
+     */
+    private boolean isStaticStripCurrent() {
+        if (staticStrip == null) return false;
 
-        final Animator animator = selectedDot.slideAnimator(toX, toY, animationDuration);
-        animator.setStartDelay(startDelay);
+        getStaticStripKey(staticStripCurrentKey);
+        return Arrays.equals(staticStripCurrentKey, staticStripKey);
+    }
+
+    /**
+     * Start recording the idle strip, replacing any previous recording.
+     *
+     * @return The canvas on which to draw the strip.
+     */
+    @NonNull
+    private Canvas beginStaticStrip() {
+        if (staticStrip == null) {
+            staticStrip = new Picture();
+        }
+        getStaticStripKey(staticStripKey);
+        return staticStrip.beginRecording(getWidth(), getHeight());
+    }
 
-        return animator;
+    private void endStaticStrip() {
+        if (staticStrip != null) {
+            staticStrip.endRecording();
+        }
     }
 
+    //endregion
+
     /**
      * Watches the ViewPager for changes, updating the indicator as needed.
      */
@@ -559,29 +1728,24 @@ public class ViewPagerIndicator extends ViewGroup {
         @Override
         public void onChanged() {
             super.onChanged();
-            refresh();
+            postEvent(EVENT_DATA_SET_CHANGED);
         }
 
         //region ViewPager.OnPageChangeListener
 
         @Override
         public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
-            //do nothing
+            if (scrollMode != SCROLL_MODE_CONTINUOUS) return;
+
+            scrollPage = toIndicatorPage(position);
+            scrollOffset = positionOffset;
+            applyScrollPosition();
         }
 
         @Override
         public void onPageSelected(int position) {
-            final Animator pageChangeAnimator = pageChangeAnimator(lastKnownCurrentPage, position);
-            if (scrollState == ViewPager.SCROLL_STATE_IDLE
-                    && viewPager != null) {
-                // Only update the text here if we're not dragging or settling.
-                refresh();
-            }
-            if (pageChangeAnimator != null) {
-                pageChangeAnimator.start();
-            }
-            //update lastKnownCurrentPage here
-            lastKnownCurrentPage = position;
+            pendingSelectedPage = toIndicatorPage(position);
+            postEvent(EVENT_PAGE_SELECTED);
         }
 
         @Override
@@ -597,29 +1761,540 @@ public class ViewPagerIndicator extends ViewGroup {
         public void onAdapterChanged(@NonNull ViewPager viewPager,
                                      @Nullable PagerAdapter oldAdapter,
                                      @Nullable PagerAdapter newAdapter) {
-            updateAdapter(oldAdapter, newAdapter);
+            // Observe the new adapter right away so that none of its changes are missed.
+            observeAdapter(oldAdapter, newAdapter);
+            postEvent(EVENT_ADAPTER_CHANGED);
         }
 
         //endregion
     }
 
 
+    //region Page range notifications
+
+    /**
+     * Notify the indicator that pages were inserted into the ViewPager's adapter.
+     *
+     * Only the new dots are created, instead of rebuilding the whole indicator. Call this after
+     * the adapter's data has changed; the adapter's following
+     * {@link PagerAdapter#notifyDataSetChanged()} will then not refresh the indicator again.
+     *
+     * If a real page count was set with {@link #setRealPageCount(int)}, the inserted pages are
+     * added to it.
+     *
+     * @param positionStart The position of the first inserted page.
+     * @param itemCount The number of inserted pages.
+     * @throws IllegalArgumentException if positionStart is negative or past the last page.
+     */
+    public void notifyPagesInserted(int positionStart, int itemCount) {
+        notifyPagesInserted(positionStart, itemCount, false);
+    }
+
+    /**
+     * Notify the indicator that pages were inserted into the ViewPager's adapter.
+     *
+     * @param positionStart The position of the first inserted page.
+     * @param itemCount The number of inserted pages.
+     * @param animate Whether to reveal the dots of the inserted pages with an animation.
+     *                Only supported in {@link #RENDER_MODE_VIEWS}.
+     * @throws IllegalArgumentException if positionStart is negative or past the last page.
+     * @see #notifyPagesInserted(int, int)
+     */
+    public void notifyPagesInserted(int positionStart, int itemCount, boolean animate) {
+        if (positionStart < 0) {
+            throw new IllegalArgumentException(
+                    "positionStart must be non-negative, was " + positionStart);
+        }
+        if (viewPager == null || itemCount <= 0) return;
+        if (positionStart > pageCount) {
+            throw new IllegalArgumentException("positionStart must be at most the page count "
+                    + pageCount + ", was " + positionStart);
+        }
+
+        int currentPage = lastKnownCurrentPage;
+        if (currentPage >= positionStart) {
+            currentPage += itemCount;
+        }
+        updatePageCount(pageCount + itemCount, currentPage);
+
+        if (animate && renderMode == RENDER_MODE_VIEWS && isVisibleOnScreen()) {
+            for (int page = positionStart, end = positionStart + itemCount; page < end; ++page) {
+                final IndicatorDotView insertedDot = getDotForPage(page);
+                if (insertedDot != null) {
+                    final Animator revealAnimator = insertedDot.revealAnimator();
+                    revealAnimator.addListener(revealListener);
+                    runningReveals.add(revealAnimator);
+                    revealAnimator.start();
+                }
+            }
+        }
+    }
+
+    /**
+     * Notify the indicator that pages were removed from the ViewPager's adapter.
+     *
+     * Only the removed dots are destroyed, instead of rebuilding the whole indicator. Call this
+     * after the adapter's data has changed.
+     *
+     * If a real page count was set with {@link #setRealPageCount(int)}, the removed pages are
+     * subtracted from it, unless every page is removed.
+     *
+     * @param positionStart The former position of the first removed page.
+     * @param itemCount The number of removed pages.
+     * @throws IllegalArgumentException if positionStart is negative.
+     */
+    public void notifyPagesRemoved(int positionStart, int itemCount) {
+        if (positionStart < 0) {
+            throw new IllegalArgumentException(
+                    "positionStart must be non-negative, was " + positionStart);
+        }
+        if (viewPager == null || itemCount <= 0) return;
+        itemCount = Math.min(itemCount, pageCount - positionStart);
+        if (itemCount <= 0) return;
+
+        // The dot that a running page change moves toward may be among the removed ones.
+        endRunningPageChange();
+
+        int currentPage = lastKnownCurrentPage;
+        if (currentPage >= positionStart + itemCount) {
+            currentPage -= itemCount;
+        } else if (currentPage >= positionStart) {
+            currentPage = positionStart;
+        }
+        final int newPageCount = Math.max(pageCount - itemCount, 0);
+        updatePageCount(newPageCount, Math.min(currentPage, newPageCount - 1));
+    }
+
+    /**
+     * Notify the indicator that a page moved within the ViewPager's adapter.
+     * Only the selected dot is updated.
+     *
+     * @param fromPosition The former position of the page.
+     * @param toPosition The new position of the page.
+     * @throws IllegalArgumentException if either position is not a page of the indicator.
+     */
+    public void notifyPageMoved(int fromPosition, int toPosition) {
+        if (fromPosition < 0 || toPosition < 0) {
+            throw new IllegalArgumentException("Positions must be non-negative, were "
+                    + fromPosition + " and " + toPosition);
+        }
+        if (viewPager == null) return;
+        if (fromPosition >= pageCount || toPosition >= pageCount) {
+            throw new IllegalArgumentException("Positions must be less than the page count "
+                    + pageCount + ", were " + fromPosition + " and " + toPosition);
+        }
+        if (fromPosition == toPosition) return;
+
+        int currentPage = lastKnownCurrentPage;
+        if (currentPage == fromPosition) {
+            currentPage = toPosition;
+        } else if (fromPosition < currentPage && currentPage <= toPosition) {
+            --currentPage;
+        } else if (toPosition <= currentPage && currentPage < fromPosition) {
+            ++currentPage;
+        }
+        if (currentPage == lastKnownCurrentPage) return;
+
+        cancelRunningPageChange();
+        lastKnownCurrentPage = currentPage;
+        if (updateWindow(currentPage)) {
+            applyWindow();
+        }
+        snapSelectedDotToCurrentPage();
+    }
+
+    /**
+     * Apply a change in the number of pages without rebuilding the indicator.
+     * A real page count set by the caller follows the new number of pages, since the pages were
+     * inserted into or removed from the set of distinct pages.
+     *
+     * @param newPageCount The new number of pages.
+     * @param newCurrentPage The index of the current page after the change.
+     */
+    private void updatePageCount(int newPageCount, int newCurrentPage) {
+        if (realPageCount > 0 && newPageCount > 0) {
+            realPageCount = newPageCount;
+        }
+
+        isUpdatingIndicator = true;
+
+        final int oldDotCount = dotCount;
+        pageCount = newPageCount;
+        updateDotCount(maxVisibleDots > 0 ? Math.min(pageCount, maxVisibleDots) : pageCount);
+        updateWindow(newCurrentPage);
+        lastKnownCurrentPage = newCurrentPage;
+
+        final float offset = lastKnownPositionOffset >= 0 ? lastKnownPositionOffset : 0;
+        updateIndicatorPositions(newCurrentPage, offset, true);
+
+        isUpdatingIndicator = false;
+
+        final LayoutParams layoutParams = getLayoutParams();
+        if (dotCount != oldDotCount && layoutParams != null
+                && layoutParams.width == LayoutParams.WRAP_CONTENT) {
+            // The indicator's own width depends on the number of dots.
+            requestLayout();
+        }
+    }
+
+    /**
+     * Check whether the indicator already reflects an adapter's page count and current page.
+     *
+     * @param adapter The adapter to compare against.
+     * @return True if refreshing the indicator would not change it.
+     */
+    private boolean isShowingAdapterState(@Nullable PagerAdapter adapter) {
+        return isShowingAdapterPageCount(adapter) && viewPager != null
+                && toIndicatorPage(viewPager.getCurrentItem()) == lastKnownCurrentPage;
+    }
+
+    /**
+     * Check whether the indicator already displays an adapter's page count.
+     *
+     * @param adapter The adapter to compare against.
+     * @return True if the indicator represents as many pages as the adapter.
+     */
+    private boolean isShowingAdapterPageCount(@Nullable PagerAdapter adapter) {
+        if (adapter == null) return false;
+
+        final int adapterPageCount = realPageCount > 0 ? realPageCount : adapter.getCount();
+        return adapterPageCount == pageCount;
+    }
+
+    //endregion
+
     //region Accessors
 
-    @Nullable
-    private IndicatorDotView getDotForPage(int pageIndex) {
-        if (pageIndex > indicatorDots.size() - 1 || pageIndex < 0) return null;
-        return indicatorDots.get(pageIndex);
+    /**
+     * Get the number of ViewPager and adapter events that were merged into an already pending
+     * frame update instead of being applied on their own.
+     *
+     * @return The number of coalesced events since the indicator was created or the counters
+     * were last reset.
+     */
+    public int getCoalescedEventCount() {
+        return coalescedEventCount;
     }
 
-    @Nullable
-    private IndicatorDotPathView getDotPathForPageChange(int oldPageIndex, int newPageIndex) {
-        if (oldPageIndex < 0 || newPageIndex < 0
-                || oldPageIndex == newPageIndex)
-            return null;
+    /**
+     * Get the number of frame updates in which the indicator applied pending ViewPager and
+     * adapter events.
+     *
+     * @return The number of applied event batches since the indicator was created or the
+     * counters were last reset.
+     */
+    public int getAppliedEventBatchCount() {
+        return appliedEventBatchCount;
+    }
+
+    /**
+     * Reset the counters returned by {@link #getCoalescedEventCount()} and
+     * {@link #getAppliedEventBatchCount()}.
+     */
+    public void resetEventCounters() {
+        coalescedEventCount = 0;
+        appliedEventBatchCount = 0;
+    }
+
+    /**
+     * Get how the indicator renders its dots.
+     *
+     * @return {@link #RENDER_MODE_VIEWS} or {@link #RENDER_MODE_CANVAS}.
+     */
+    @RenderMode
+    public int getRenderMode() {
+        return renderMode;
+    }
+
+    /**
+     * Set how the indicator renders its dots.
+     *
+     * In {@link #RENDER_MODE_VIEWS}, each dot is a child view of the indicator.
+     * In {@link #RENDER_MODE_CANVAS}, the indicator has no children and draws every dot itself,
+     * so its measure and layout cost stays flat regardless of the number of pages.
+     *
+     * @param newRenderMode {@link #RENDER_MODE_VIEWS} or {@link #RENDER_MODE_CANVAS}.
+     */
+    public void setRenderMode(@RenderMode int newRenderMode) {
+        if (renderMode == newRenderMode) return;
+
+        cancelRunningPageChange();
+        renderMode = newRenderMode;
+        staticStrip = null;
+        dotGeometry.invalidate();
+        removeAllViews();
+        indicatorDots.clear();
+        idlePageChangeAnimations.clear();
+        activePageChangeAnimations.clear();
+        dotCount = 0;
+        selectedDot.setTranslationX(0);
+        selectedDot.setTranslationY(0);
+        selectedDotNeedsLayout = true;
+        isTransitioning = false;
+        transitionFraction = 1;
+        interruptedSelectedDotX = Float.NaN;
+        hasScrollPosition = false;
+
+        updateWillNotDraw();
+        invalidate();
+        requestLayout();
+    }
+
+    /**
+     * Get how the indicator follows the ViewPager's scrolling.
+     *
+     * @return {@link #SCROLL_MODE_ANIMATE} or {@link #SCROLL_MODE_CONTINUOUS}.
+     */
+    @ScrollMode
+    public int getScrollMode() {
+        return scrollMode;
+    }
+
+    /**
+     * Set how the indicator follows the ViewPager's scrolling.
+     *
+     * In {@link #SCROLL_MODE_ANIMATE}, the selection animates to a page once it is selected.
+     * In {@link #SCROLL_MODE_CONTINUOUS}, the selected dot and the path connecting it to the next
+     * dot track the ViewPager's scroll position exactly, and no animators are run.
+     *
+     * @param newScrollMode {@link #SCROLL_MODE_ANIMATE} or {@link #SCROLL_MODE_CONTINUOUS}.
+     */
+    public void setScrollMode(@ScrollMode int newScrollMode) {
+        if (scrollMode == newScrollMode) return;
+
+        cancelRunningPageChange();
+        scrollMode = newScrollMode;
+        scrollPage = -1;
+        hasScrollPosition = false;
+        updateWillNotDraw();
+        snapSelectedDotToCurrentPage();
+        invalidate();
+    }
+
+    /**
+     * Check whether the app asked for page changes to be applied without animation.
+     *
+     * @return True if page changes are always applied instantly.
+     * @see #setInstantPageChanges(boolean)
+     */
+    public boolean isInstantPageChanges() {
+        return instantPageChanges;
+    }
+
+    /**
+     * Set whether page changes should be applied without animation. Instant page changes move the
+     * selected dot straight to the new page's dot and do not create any animators.
+     *
+     * Page changes are also applied instantly, regardless of this setting, while the system
+     * animator duration scale is 0 or battery saver is on.
+     *
+     * @param instantPageChanges Whether to always apply page changes instantly.
+     */
+    public void setInstantPageChanges(boolean instantPageChanges) {
+        if (this.instantPageChanges == instantPageChanges) return;
+
+        this.instantPageChanges = instantPageChanges;
+        if (instantPageChanges) {
+            endRunningPageChange();
+        }
+    }
+
+    /**
+     * Check whether dots are drawn from pre-rendered bitmaps.
+     *
+     * @return True if the dot sprite cache is enabled.
+     * @see #setDotSpriteCacheEnabled(boolean)
+     */
+    public boolean isDotSpriteCacheEnabled() {
+        return dotSpriteCacheEnabled;
+    }
+
+    /**
+     * Set whether to draw dots from pre-rendered bitmaps. Each combination of dot radius and
+     * color is rendered once into a small bitmap, shared by every indicator in the app, and then
+     * copied for each dot instead of drawing an anti-aliased circle. This is cheaper where the
+     * dots are drawn in software, such as in software layers on low-end devices.
+     *
+     * The bitmaps are limited to a small memory budget and released when the system is low on
+     * memory. Dots that are scaled down, such as the edge dots of a window, are always drawn
+     * directly.
+     *
+     * @param dotSpriteCacheEnabled Whether to draw dots from pre-rendered bitmaps.
+     */
+    public void setDotSpriteCacheEnabled(boolean dotSpriteCacheEnabled) {
+        final DotSpriteCache spriteCache = dotSpriteCacheEnabled
+                ? DotSpriteCache.getInstance(getContext())
+                : null;
+        this.dotSpriteCacheEnabled = dotSpriteCacheEnabled;
+        if (unselectedDotStyle.getSpriteCache() == spriteCache) return;
+
+        unselectedDotStyle.setSpriteCache(spriteCache);
+        selectedDotStyle.setSpriteCache(spriteCache);
+        if (renderMode == RENDER_MODE_CANVAS) {
+            invalidate();
+        } else {
+            invalidateDotStyle();
+            if (selectedDot != null) {
+                selectedDot.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Check whether the idle indicator is drawn from a recording.
+     *
+     * @return True if the static strip cache is enabled.
+     * @see #setStaticStripCacheEnabled(boolean)
+     */
+    public boolean isStaticStripCacheEnabled() {
+        return staticStripCacheEnabled;
+    }
+
+    /**
+     * Set whether to draw the idle indicator from a recording. Between page changes, the whole
+     * strip of dots is recorded once and then replayed with a single draw call whenever the
+     * indicator is redrawn, regardless of the number of pages. The strip is recorded again after
+     * its size, dots, colors or selected page change, and the indicator is drawn live while it
+     * is scrolling or animating.
+     *
+     * Only has an effect in {@link #RENDER_MODE_CANVAS}, on API 23 and above or where the
+     * indicator is drawn in software.
+     *
+     * @param staticStripCacheEnabled Whether to draw the idle indicator from a recording.
+     */
+    public void setStaticStripCacheEnabled(boolean staticStripCacheEnabled) {
+        if (this.staticStripCacheEnabled == staticStripCacheEnabled) return;
+
+        this.staticStripCacheEnabled = staticStripCacheEnabled;
+        if (!staticStripCacheEnabled) {
+            staticStrip = null;
+        }
+        invalidate();
+    }
+
+    /**
+     * Check whether page change animations are pre-warmed after the indicator is attached.
+     *
+     * @return True if page change animations are pre-warmed.
+     */
+    public boolean isPrewarmAnimations() {
+        return prewarmAnimations;
+    }
+
+    /**
+     * Set whether to pre-warm page change animations. When enabled, the first time the main
+     * thread is idle after the indicator is attached, a page change animation is built, its
+     * timing tables are baked for both directions and its path is drawn once in software, so
+     * that the first page change does less work.
+     * Only has an effect in {@link #RENDER_MODE_VIEWS}.
+     *
+     * @param prewarmAnimations Whether to pre-warm page change animations.
+     */
+    public void setPrewarmAnimations(boolean prewarmAnimations) {
+        if (this.prewarmAnimations == prewarmAnimations) return;
+
+        this.prewarmAnimations = prewarmAnimations;
+        if (!prewarmAnimations) {
+            cancelPrewarm();
+        } else if (viewPager != null) {
+            schedulePrewarm();
+        }
+    }
+
+    /**
+     * Get the maximum number of page change animations that run at the same time across every
+     * indicator in the app.
+     *
+     * @return The maximum number of running page change animations.
+     */
+    public static int getMaxRunningPageChanges() {
+        return IndicatorFrameScheduler.getInstance().getMaxRunningAnimations();
+    }
+
+    /**
+     * Set the maximum number of page change animations that run at the same time across every
+     * indicator in the app. Page changes of all indicators are stepped from a single frame
+     * callback, and page changes started beyond this limit are applied without animating.
+     * Must be called from the main thread.
+     *
+     * @param maxRunningPageChanges The maximum number of running page change animations.
+     * Must be non-negative; 0 turns off page change animations.
+     */
+    public static void setMaxRunningPageChanges(int maxRunningPageChanges) {
+        IndicatorFrameScheduler.getInstance().setMaxRunningAnimations(maxRunningPageChanges);
+    }
+
+    /**
+     * Get the maximum number of dots displayed at once.
+     *
+     * @return The maximum number of dots, or 0 if the indicator displays one dot per page.
+     */
+    public int getMaxVisibleDots() {
+        return maxVisibleDots;
+    }
+
+    /**
+     * Limit the number of dots displayed at once. When the ViewPager has more pages than this,
+     * only a window of the pages is displayed. The window slides as the current page changes, and
+     * the dots at its edges shrink to show that there are more pages beyond them.
+     *
+     * Only the dots in the window are created, so the cost of the indicator no longer depends on
+     * the number of pages.
+     *
+     * @param newMaxVisibleDots The maximum number of dots, or 0 to display one dot per page.
+     */
+    public void setMaxVisibleDots(int newMaxVisibleDots) {
+        if (newMaxVisibleDots < 0) newMaxVisibleDots = 0;
+        if (maxVisibleDots == newMaxVisibleDots) return;
+
+        maxVisibleDots = newMaxVisibleDots;
+        requestLayout();
+    }
+
+    /**
+     * Get the number of distinct pages in a looping adapter.
+     *
+     * @return The number of pages represented by the indicator, or 0 if the indicator uses the
+     * adapter's count.
+     */
+    public int getRealPageCount() {
+        return realPageCount;
+    }
+
+    /**
+     * Set the number of distinct pages in a looping adapter.
+     *
+     * Looping adapters usually return a very large virtual count, such as
+     * {@link Integer#MAX_VALUE}, from {@link PagerAdapter#getCount()}. When a real page count is
+     * set, the indicator displays that many pages instead and maps each adapter position onto
+     * them modulo the real count.
+     *
+     * @param newRealPageCount The number of distinct pages, or 0 to use the adapter's count.
+     */
+    public void setRealPageCount(int newRealPageCount) {
+        if (newRealPageCount < 0) newRealPageCount = 0;
+        if (realPageCount == newRealPageCount) return;
+
+        realPageCount = newRealPageCount;
+        lastKnownCurrentPage = -1;
+        requestLayout();
+    }
+
+    /**
+     * Map a ViewPager adapter position onto a page represented by the indicator.
+     *
+     * @param position The adapter position.
+     * @return The index of the indicator page for position.
+     */
+    private int toIndicatorPage(int position) {
+        return realPageCount > 0 && position >= 0 ? position % realPageCount : position;
+    }
 
-        final int dotPathIndex = oldPageIndex < newPageIndex ? oldPageIndex : newPageIndex;
-        return dotPathIndex >= dotPaths.size() ? null : dotPaths.get(dotPathIndex);
+    @Nullable
+    private IndicatorDotView getDotForPage(int pageIndex) {
+        final int dotIndex = pageIndex - windowStart;
+        if (dotIndex > indicatorDots.size() - 1 || dotIndex < 0) return null;
+        return indicatorDots.get(dotIndex);
     }
 
     @IndicatorDotPathView.PathDirection
@@ -691,9 +2366,10 @@ public class ViewPagerIndicator extends ViewGroup {
         if (newRadius < 0) newRadius = 0;
 
         dotRadius = newRadius;
-        for (IndicatorDotView indicatorDot : indicatorDots) {
-            indicatorDot.setRadius(dotRadius);
-        }
+        // Every dot reads its size from a shared style, and is resized when laid out again.
+        unselectedDotStyle.setRadius(newRadius);
+        selectedDotStyle.setRadius(newRadius);
+        selectedDotNeedsLayout = true;
         invalidate();
         requestLayout();
     }
@@ -715,9 +2391,12 @@ public class ViewPagerIndicator extends ViewGroup {
      */
     public void setUnselectedDotColor(@ColorInt int color) {
         unselectedDotColor = color;
-        for (IndicatorDotView indicatordot : indicatorDots) {
-            indicatordot.setColor(color);
-            indicatordot.invalidate();
+        if (!unselectedDotStyle.setColor(color)) return;
+
+        if (renderMode == RENDER_MODE_CANVAS) {
+            invalidate();
+        } else {
+            invalidateDotStyle();
         }
     }
 
@@ -738,11 +2417,31 @@ public class ViewPagerIndicator extends ViewGroup {
      */
     public void setSelectedDotColor(@ColorInt int color) {
         selectedDotColor = color;
-        if (selectedDot != null) {
-            selectedDot.setColor(color);
+        if (!selectedDotStyle.setColor(color)) return;
+
+        if (renderMode == RENDER_MODE_CANVAS) {
+            invalidate();
+        } else if (selectedDot != null) {
             selectedDot.invalidate();
+            // Dots only stay hidden under an opaque selected dot.
+            updateDotHiddenBySelection();
         }
     }
 
     //endregion
+
+    /**
+     * Redraw every child after the unselected dot style changed. Only the views' drawings are
+     * refreshed; their state is shared and was already updated.
+     */
+    private void invalidateDotStyle() {
+        for (int i = 0, childCount = getChildCount(); i < childCount; ++i) {
+            final View child = getChildAt(i);
+            if (child instanceof IndicatorDotPathView) {
+                ((IndicatorDotPathView) child).invalidateDotStyle();
+            } else if (child != selectedDot) {
+                child.invalidate();
+            }
+        }
+    }
 }
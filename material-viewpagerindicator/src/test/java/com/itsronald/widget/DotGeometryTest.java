@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2016 Ronald Martin <hello@itsronald.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Last modified 10/12/16 11:22 PM.
+ */
+
+package com.itsronald.widget;
+
+import android.view.Gravity;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link DotGeometry}.
+ */
+public class DotGeometryTest {
+
+    private static final int WIDTH = 100;
+    private static final int HEIGHT = 20;
+    private static final int RADIUS = 3;
+    private static final int PADDING = 9;
+
+    @Test
+    public void update_centersDotsHorizontally() throws Exception {
+        final DotGeometry geometry = new DotGeometry();
+        geometry.update(WIDTH, HEIGHT, 0, 0, Gravity.CENTER_VERTICAL, RADIUS, PADDING, 3);
+
+        // 3 dots of 6px with 2 gaps of 9px are 36px wide, so they start at 50 - 18.
+        assertEquals(32, geometry.getLeft(0));
+        assertEquals(47, geometry.getLeft(1));
+        assertEquals(62, geometry.getLeft(2));
+        assertEquals(50, geometry.getCenterX(1));
+    }
+
+    @Test
+    public void update_appliesVerticalGravity() throws Exception {
+        final DotGeometry geometry = new DotGeometry();
+
+        geometry.update(WIDTH, HEIGHT, 2, 4, Gravity.TOP, RADIUS, PADDING, 1);
+        assertEquals(2, geometry.getTop());
+
+        geometry.update(WIDTH, HEIGHT, 2, 4, Gravity.BOTTOM, RADIUS, PADDING, 1);
+        assertEquals(HEIGHT - 4 - 2 * RADIUS, geometry.getTop());
+
+        geometry.update(WIDTH, HEIGHT, 2, 4, Gravity.CENTER_VERTICAL, RADIUS, PADDING, 1);
+        assertEquals((HEIGHT - 2 - 4) / 2 - RADIUS, geometry.getTop());
+        assertEquals(geometry.getTop() + RADIUS, geometry.getCenterY());
+    }
+
+    @Test
+    public void update_onlyRecomputesWhenInputsChange() throws Exception {
+        final DotGeometry geometry = new DotGeometry();
+        assertTrue(geometry.update(WIDTH, HEIGHT, 0, 0, Gravity.TOP, RADIUS, PADDING, 4));
+        assertFalse(geometry.update(WIDTH, HEIGHT, 0, 0, Gravity.TOP, RADIUS, PADDING, 4));
+        // Horizontal gravity does not affect the positions.
+        assertFalse(geometry.update(WIDTH, HEIGHT, 0, 0, Gravity.TOP | Gravity.LEFT,
+                RADIUS, PADDING, 4));
+
+        assertTrue(geometry.update(WIDTH + 1, HEIGHT, 0, 0, Gravity.TOP, RADIUS, PADDING, 4));
+        assertTrue(geometry.update(WIDTH + 1, HEIGHT, 0, 0, Gravity.TOP, RADIUS, PADDING, 5));
+        assertTrue(geometry.update(WIDTH + 1, HEIGHT, 0, 0, Gravity.TOP, RADIUS + 1, PADDING, 5));
+
+        geometry.invalidate();
+        assertTrue(geometry.update(WIDTH + 1, HEIGHT, 0, 0, Gravity.TOP, RADIUS + 1, PADDING, 5));
+    }
+
+    @Test
+    public void matches_comparesWithoutRecomputing() throws Exception {
+        final DotGeometry geometry = new DotGeometry();
+        assertFalse(geometry.matches(WIDTH, HEIGHT, 0, 0, Gravity.TOP, RADIUS, PADDING, 4));
+
+        geometry.update(WIDTH, HEIGHT, 0, 0, Gravity.TOP, RADIUS, PADDING, 4);
+        assertTrue(geometry.matches(WIDTH, HEIGHT, 0, 0, Gravity.TOP, RADIUS, PADDING, 4));
+        assertFalse(geometry.matches(WIDTH, HEIGHT, 0, 1, Gravity.TOP, RADIUS, PADDING, 4));
+        assertFalse(geometry.matches(WIDTH, HEIGHT, 0, 0, Gravity.BOTTOM, RADIUS, PADDING, 4));
+        assertFalse(geometry.matches(WIDTH, HEIGHT, 0, 0, Gravity.TOP, RADIUS, PADDING + 1, 4));
+
+        // A failed comparison leaves the positions untouched.
+        assertTrue(geometry.matches(WIDTH, HEIGHT, 0, 0, Gravity.TOP, RADIUS, PADDING, 4));
+    }
+
+    @Test
+    public void update_shrinkingCountKeepsRemainingPositionsValid() throws Exception {
+        final DotGeometry geometry = new DotGeometry();
+        geometry.update(WIDTH, HEIGHT, 0, 0, Gravity.TOP, RADIUS, PADDING, 5);
+        geometry.update(WIDTH, HEIGHT, 0, 0, Gravity.TOP, RADIUS, PADDING, 1);
+
+        assertEquals(1, geometry.getDotCount());
+        assertEquals(WIDTH / 2 - RADIUS, geometry.getLeft(0));
+    }
+}
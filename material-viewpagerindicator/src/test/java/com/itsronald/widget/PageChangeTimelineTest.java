@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2016 Ronald Martin <hello@itsronald.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Last modified 10/12/16 11:22 PM.
+ */
+
+package com.itsronald.widget;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link PageChangeTimeline}.
+ */
+public class PageChangeTimelineTest {
+
+    private static final int RADIUS = 3;
+    private static final int PADDING = 9;
+    private static final float DELTA = 1e-4f;
+
+    @Test
+    public void obtain_cachesTablesPerGeometry() throws Exception {
+        final PageChangeTimeline timeline = PageChangeTimeline.obtain(RADIUS, PADDING, true);
+        assertSame(timeline, PageChangeTimeline.obtain(RADIUS, PADDING, true));
+
+        assertNotSame(timeline, PageChangeTimeline.obtain(RADIUS, PADDING, false));
+        assertNotSame(timeline, PageChangeTimeline.obtain(RADIUS + 1, PADDING, true));
+        assertNotSame(timeline, PageChangeTimeline.obtain(RADIUS, PADDING + 1, true));
+    }
+
+    @Test
+    public void matches_onlyTheInputsTheTablesWereBakedFor() throws Exception {
+        final PageChangeTimeline timeline = PageChangeTimeline.obtain(RADIUS, PADDING, true);
+
+        assertTrue(timeline.matches(RADIUS, PADDING, true));
+        assertFalse(timeline.matches(RADIUS, PADDING, false));
+        assertFalse(timeline.matches(RADIUS + 1, PADDING, true));
+        assertFalse(timeline.matches(RADIUS, PADDING + 1, true));
+    }
+
+    @Test
+    public void segments_stretchOverTheOtherDotDuringConnect() throws Exception {
+        final PageChangeTimeline timeline = PageChangeTimeline.obtain(RADIUS, PADDING, true);
+        final float slideStart = PageChangeTimeline.SLIDE_START_POSITION;
+
+        // A 6px segment stretches over the 9px gap and the other 6px dot.
+        assertEquals(1, PageChangeTimeline.sample(timeline.segmentScaleX, 0), DELTA);
+        assertEquals(21f / 6, PageChangeTimeline.sample(timeline.segmentScaleX, slideStart), DELTA);
+        assertEquals(1, PageChangeTimeline.sample(timeline.segmentScaleY, slideStart / 2), DELTA);
+
+        assertEquals(0, timeline.startSegmentPivotX, DELTA);
+        assertEquals(2 * RADIUS, timeline.endSegmentPivotX, DELTA);
+    }
+
+    @Test
+    public void center_fillsOutOnceTheSegmentsMeet() throws Exception {
+        final PageChangeTimeline timeline = PageChangeTimeline.obtain(RADIUS, PADDING, true);
+        final float connectEnd = PageChangeTimeline.SLIDE_START_POSITION;
+
+        assertFalse(PageChangeTimeline.isVisible(timeline.centerVisibility, 0));
+        assertFalse(PageChangeTimeline.isVisible(timeline.centerVisibility,
+                connectEnd * PageChangeTimeline.CENTER_GROW_START));
+        assertTrue(PageChangeTimeline.isVisible(timeline.centerVisibility, connectEnd));
+        assertTrue(PageChangeTimeline.isVisible(timeline.centerVisibility, 1));
+
+        assertEquals(0, PageChangeTimeline.sample(timeline.centerScaleY, 0), DELTA);
+        assertEquals(1, PageChangeTimeline.sample(timeline.centerScaleY,
+                connectEnd * PageChangeTimeline.CENTER_GROW_END), DELTA);
+        assertEquals(1, PageChangeTimeline.sample(timeline.centerScaleX, connectEnd), DELTA);
+        assertEquals(0, PageChangeTimeline.sample(timeline.centerScaleX, 1), DELTA);
+    }
+
+    @Test
+    public void slide_onlyMovesDuringTheSlidePhase() throws Exception {
+        final PageChangeTimeline timeline = PageChangeTimeline.obtain(RADIUS, PADDING, true);
+
+        assertEquals(0, PageChangeTimeline.sample(timeline.slideFraction,
+                PageChangeTimeline.SLIDE_START_POSITION), DELTA);
+        assertEquals(0.5f, PageChangeTimeline.sample(timeline.slideFraction,
+                (PageChangeTimeline.SLIDE_START_POSITION
+                        + PageChangeTimeline.RETREAT_START_POSITION) / 2), DELTA);
+        assertEquals(1, PageChangeTimeline.sample(timeline.slideFraction,
+                PageChangeTimeline.RETREAT_START_POSITION), DELTA);
+    }
+
+    @Test
+    public void retreat_movesTheRetreatingDotOntoTheOtherDot() throws Exception {
+        final int spacing = 2 * RADIUS + PADDING;
+
+        final PageChangeTimeline right = PageChangeTimeline.obtain(RADIUS, PADDING, true);
+        assertEquals(0, PageChangeTimeline.sample(right.retreatTranslationX,
+                PageChangeTimeline.RETREAT_START_POSITION), DELTA);
+        assertEquals(spacing, PageChangeTimeline.sample(right.retreatTranslationX, 1), DELTA);
+        assertEquals(RADIUS + PADDING + RADIUS, right.centerRetreatPivotX, DELTA);
+
+        final PageChangeTimeline left = PageChangeTimeline.obtain(RADIUS, PADDING, false);
+        assertEquals(-spacing, PageChangeTimeline.sample(left.retreatTranslationX, 1), DELTA);
+        assertEquals(0, left.centerRetreatPivotX, DELTA);
+
+        assertEquals(1, PageChangeTimeline.sample(right.revealFraction, 1), DELTA);
+    }
+
+    @Test
+    public void sample_interpolatesBetweenSamplesAndClamps() throws Exception {
+        final float[] table = new float[PageChangeTimeline.SAMPLE_COUNT + 1];
+        for (int i = 0; i < table.length; ++i) {
+            table[i] = i;
+        }
+
+        assertEquals(0, PageChangeTimeline.sample(table, -1), DELTA);
+        assertEquals(PageChangeTimeline.SAMPLE_COUNT, PageChangeTimeline.sample(table, 2), DELTA);
+        assertEquals(2.5f, PageChangeTimeline.sample(table,
+                2.5f / PageChangeTimeline.SAMPLE_COUNT), DELTA);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2016 Ronald Martin <hello@itsronald.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Last modified 10/12/16 11:22 PM.
+ */
+
+package com.itsronald.widget;
+
+import android.view.Gravity;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for {@link StripPainter}.
+ */
+public class StripPainterTest {
+
+    private static final int RADIUS = 3;
+    private static final int OPAQUE = 0xffffffff;
+    private static final int TRANSLUCENT = 0x80ffffff;
+
+    private final DotGeometry geometry = new DotGeometry();
+    private final StripPainter painter = new StripPainter();
+    private final CountingRenderer renderer = new CountingRenderer();
+
+    @Before
+    public void setUp() throws Exception {
+        // 5 dots of 6px with 4 gaps of 9px, centered at x = 20, 35, 50, 65 and 80.
+        geometry.update(100, 20, 0, 0, Gravity.TOP, RADIUS, 9, 5);
+    }
+
+    @Test
+    public void paint_atRest_skipsDotUnderSelection() throws Exception {
+        painter.setSelection(50, 50, 1, true);
+        painter.paint(geometry, renderer);
+
+        assertEquals(4, renderer.unselectedDots);
+        assertEquals(0, renderer.paths);
+        assertEquals(1, renderer.selectedDots);
+    }
+
+    @Test
+    public void paint_midTransition_skipsDotsUnderPath() throws Exception {
+        painter.setSelection(35, 65, 0.5f, true);
+        painter.paint(geometry, renderer);
+
+        // The path spans from dot 1 to dot 3, covering all three along with the selected dot.
+        assertEquals(2, renderer.unselectedDots);
+        assertEquals(1, renderer.paths);
+        assertEquals(1, renderer.selectedDots);
+        assertEquals(32, renderer.pathLeft, 0);
+        assertEquals(68, renderer.pathRight, 0);
+    }
+
+    @Test
+    public void paint_skipsScaledEdgeDotOnlyWhenCovered() throws Exception {
+        painter.setSelection(21, 21, 1, true);
+        painter.paint(geometry, renderer);
+        assertEquals(5, renderer.unselectedDots);
+
+        renderer.reset();
+        painter.setDotScales(0.5f, 1);
+        painter.paint(geometry, renderer);
+        assertEquals(4, renderer.unselectedDots);
+    }
+
+    @Test
+    public void paint_withoutUnselectedDots_drawsOnlyPath() throws Exception {
+        painter.setDrawsUnselectedDots(false);
+        painter.setSelection(35, 65, 0.5f, false);
+        painter.paint(geometry, renderer);
+
+        assertEquals(0, renderer.unselectedDots);
+        assertEquals(1, renderer.paths);
+        assertEquals(0, renderer.selectedDots);
+    }
+
+    @Test
+    public void paint_withoutSelection_drawsEveryDot() throws Exception {
+        painter.setSelection(50, 50, 1, true);
+        painter.clearSelection();
+        painter.paint(geometry, renderer);
+
+        assertEquals(5, renderer.unselectedDots);
+        assertEquals(0, renderer.paths);
+        assertEquals(0, renderer.selectedDots);
+    }
+
+    @Test
+    public void paint_drawsDotUnderTranslucentSelectedDot() throws Exception {
+        painter.setColors(OPAQUE, TRANSLUCENT);
+        painter.setSelection(50, 50, 1, true);
+        painter.paint(geometry, renderer);
+
+        assertEquals(5, renderer.unselectedDots);
+        assertEquals(1, renderer.selectedDots);
+    }
+
+    @Test
+    public void paint_drawsDotsUnderTranslucentPath() throws Exception {
+        painter.setColors(TRANSLUCENT, OPAQUE);
+        painter.setSelection(35, 65, 0.5f, true);
+        painter.paint(geometry, renderer);
+
+        // Only the dot under the opaque selected dot is skipped.
+        assertEquals(4, renderer.unselectedDots);
+        assertEquals(1, renderer.paths);
+    }
+
+    @Test
+    public void isDotHidden_atRestUnderSelectedDot() throws Exception {
+        assertTrue(StripPainter.isDotHidden(50, 10, RADIUS, 50, 10, RADIUS, OPAQUE));
+        assertFalse(StripPainter.isDotHidden(50, 10, RADIUS, 50, 10, RADIUS, TRANSLUCENT));
+    }
+
+    @Test
+    public void isDotHidden_onlyWhenContained() throws Exception {
+        // A selected dot following a scroll no longer covers a full-size dot...
+        assertFalse(StripPainter.isDotHidden(50, 10, RADIUS, 51, 10, RADIUS, OPAQUE));
+        // ...but still covers a shrunken edge dot.
+        assertTrue(StripPainter.isDotHidden(50, 10, RADIUS / 2f, 51, 10, RADIUS, OPAQUE));
+        assertFalse(StripPainter.isDotHidden(50, 10, RADIUS, 50, 10, RADIUS / 2f, OPAQUE));
+        assertFalse(StripPainter.isDotHidden(50, 10, RADIUS / 2f, 50, 12, RADIUS, OPAQUE));
+    }
+
+    private static final class CountingRenderer implements StripRenderer {
+
+        int unselectedDots;
+        int paths;
+        int selectedDots;
+        float pathLeft;
+        float pathRight;
+
+        void reset() {
+            unselectedDots = 0;
+            paths = 0;
+            selectedDots = 0;
+        }
+
+        @Override
+        public void drawUnselectedDot(float centerX, float centerY, float radius) {
+            ++unselectedDots;
+        }
+
+        @Override
+        public void drawSelectionPath(float left,
+                                      float top,
+                                      float right,
+                                      float bottom,
+                                      float radius) {
+            ++paths;
+            pathLeft = left;
+            pathRight = right;
+        }
+
+        @Override
+        public void drawSelectedDot(float centerX, float centerY, float radius) {
+            ++selectedDots;
+        }
+    }
+}